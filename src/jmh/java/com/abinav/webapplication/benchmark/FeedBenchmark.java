@@ -0,0 +1,155 @@
+package com.abinav.webapplication.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.abinav.webapplication.WebapplicationApplication;
+import com.abinav.webapplication.dto.PostDTO;
+import com.abinav.webapplication.dto.PostPageDTO;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.service.PostService;
+import com.abinav.webapplication.serviceImpl.FeedHydrator;
+
+/**
+ * Feed read path against an in-memory H2 database (MySQL mode, same Flyway
+ * schema as production).
+ *
+ * feedPage is PostService.getFeed end to end; hydratePage isolates the
+ * post-to-DTO step (FeedHydrator, formerly PostServiceImpl.convertToDTO) for
+ * an already loaded page. Dataset shape is set by the users, posts and
+ * likesPerPost parameters, e.g. -p posts=50000 -p likesPerPost=200.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int BATCH = 1000;
+
+    @Param({ "100" })
+    public int users;
+
+    @Param({ "1000", "10000" })
+    public int posts;
+
+    @Param({ "0", "50" })
+    public int likesPerPost;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private FeedHydrator feedHydrator;
+    private List<Post> page;
+    private Users viewer;
+    private Long viewerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WebapplicationApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        // A fresh database per parameter combination
+                        "spring.datasource.url=jdbc:h2:mem:bench" + System.nanoTime()
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "app.counters.reconcile-initial-delay-ms=86400000",
+                        "logging.level.root=WARN")
+                .run();
+        postService = context.getBean(PostService.class);
+        feedHydrator = context.getBean(FeedHydrator.class);
+
+        seed(context.getBean(JdbcTemplate.class));
+
+        viewerId = 1L;
+        viewer = context.getBean(UserRepository.class).getReferenceById(viewerId);
+        page = context.getBean(PostRepository.class).findFeedFirstPage(Limit.of(PAGE_SIZE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PostPageDTO feedPage() {
+        return postService.getFeed(null, PAGE_SIZE, viewerId);
+    }
+
+    @Benchmark
+    public List<PostDTO> hydratePage() {
+        return feedHydrator.hydrate(page, viewer);
+    }
+
+    @Benchmark
+    public PostPageDTO anonymousFeedPage() {
+        return postService.getFeed(null, PAGE_SIZE, null);
+    }
+
+    // Plain JDBC batches; going through JPA would take longer than the benchmark
+    private void seed(JdbcTemplate jdbc) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int u = 1; u <= users; u++) {
+            rows.add(new Object[] { u, "user" + u, "user" + u + "@example.com", "x" });
+        }
+        jdbc.batchUpdate("insert into users (id, username, email, password) values (?, ?, ?, ?)", rows);
+
+        // The viewer (user 1) follows every other user
+        rows.clear();
+        for (int u = 2; u <= users; u++) {
+            rows.add(new Object[] { 1, u });
+        }
+        jdbc.batchUpdate("insert into follows (follower_id, following_id) values (?, ?)", rows);
+
+        int likes = Math.min(likesPerPost, users);
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        rows.clear();
+        for (int p = 1; p <= posts; p++) {
+            rows.add(new Object[] { p, (p % users) + 1, "post " + p, likes, Timestamp.valueOf(start.plusSeconds(p)) });
+            if (rows.size() == BATCH) {
+                jdbc.batchUpdate("insert into posts (id, user_id, caption, like_count, created_at) values (?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        jdbc.batchUpdate("insert into posts (id, user_id, caption, like_count, created_at) values (?, ?, ?, ?, ?)", rows);
+
+        rows.clear();
+        for (int p = 1; p <= posts; p++) {
+            for (int k = 0; k < likes; k++) {
+                rows.add(new Object[] { ((p + k) % users) + 1, p });
+                if (rows.size() == BATCH) {
+                    jdbc.batchUpdate("insert into likes (user_id, post_id) values (?, ?)", rows);
+                    rows.clear();
+                }
+            }
+        }
+        jdbc.batchUpdate("insert into likes (user_id, post_id) values (?, ?)", rows);
+    }
+}
@@ -0,0 +1,85 @@
+package com.abinav.webapplication.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.utility.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Per-request cost of authenticating a bearer token in JwtFilter.
+ *
+ * twoParsesPerRequest reproduces the old filter (extractUsername followed by
+ * validateToken, each building a parser); singleParse reuses one parser;
+ * cachedParse is the current JwtUtil.parseClaims path for a hot client;
+ * validateToken is the same path through the public boolean API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtParser parser;
+    private Users user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        jwtUtil.init();
+        parser = Jwts.parserBuilder().setSigningKey(jwtUtil.getSecretKey()).build();
+        user = new Users();
+        user.setId(42L);
+        user.setEmail("bench@example.com");
+        user.setUsername("bench");
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public void twoParsesPerRequest(Blackhole bh) {
+        Claims claims = Jwts.parserBuilder().setSigningKey(jwtUtil.getSecretKey()).build()
+                .parseClaimsJws(token).getBody();
+        bh.consume(claims.getSubject());
+        bh.consume(Jwts.parserBuilder().setSigningKey(jwtUtil.getSecretKey()).build()
+                .parseClaimsJws(token));
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String cachedParse() {
+        return jwtUtil.parseClaims(token).getSubject();
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+}
@@ -0,0 +1,139 @@
+package com.abinav.webapplication.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load driver for comparing request threading modes.
+ *
+ * Start the application twice against the same database, once as usual and
+ * once with --spring.profiles.active=virtual-threads (on Java 21), and run
+ * this against each with the same arguments:
+ *
+ *   mvn -Pbenchmarks -DskipTests test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=com.abinav.webapplication.benchmark.LoadTest
+ *       -Dexec.args="url=http://localhost:8080/api/posts?size=20 clients=400 seconds=60 label=platform"
+ *
+ * Each of `clients` threads sends a request, waits for the response and
+ * sends the next, so throughput is bounded by server latency rather than an
+ * arrival rate. Pass token=<jwt> to exercise the authenticated feed path
+ * (and JwtFilter). Prints throughput, latency percentiles and the number
+ * of 503s from the bulkhead; requests in the warmup are not counted.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        URI uri = URI.create(options.getOrDefault("url", "http://localhost:8080/api/posts?size=20"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        String token = options.get("token");
+        String label = options.getOrDefault("label", "run");
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(seconds).toNanos();
+
+        AtomicLong ok = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<long[]> samples = new ArrayList<>(clients);
+        int[] sampleCounts = new int[clients];
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int c = 0; c < clients; c++) {
+            int worker = c;
+            long[] latencies = new long[1 << 16];
+            samples.add(latencies);
+            Thread thread = new Thread(() -> {
+                long[] own = latencies;
+                int n = 0;
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long latency = System.nanoTime() - now;
+                        if (now < warmupEnd) {
+                            continue;
+                        }
+                        if (status == 503) {
+                            rejected.incrementAndGet();
+                        } else if (status < 200 || status >= 400) {
+                            failed.incrementAndGet();
+                        } else {
+                            ok.incrementAndGet();
+                            if (n == own.length) {
+                                own = Arrays.copyOf(own, n * 2);
+                                samples.set(worker, own);
+                            }
+                            own[n++] = latency;
+                        }
+                    }
+                } finally {
+                    sampleCounts[worker] = n;
+                    done.countDown();
+                }
+            }, "load-" + c);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        int total = 0;
+        for (int count : sampleCounts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int pos = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(samples.get(c), 0, all, pos, sampleCounts[c]);
+            pos += sampleCounts[c];
+        }
+        Arrays.sort(all);
+
+        System.out.printf("%s: %s, %d clients, %d s%n", label, uri, clients, seconds);
+        System.out.printf("  throughput  %.1f req/s%n", ok.get() / (double) seconds);
+        System.out.printf("  latency ms  p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                percentile(all, 0.999), percentile(all, 1.0));
+        System.out.printf("  ok %d  rejected(503) %d  failed %d%n", ok.get(), rejected.get(), failed.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.abinav.webapplication.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.abinav.webapplication.dto.PostDTO;
+import com.abinav.webapplication.model.Comment;
+import com.abinav.webapplication.model.CommentDTO;
+import com.abinav.webapplication.model.Users;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Response-building cost: mapping comments to CommentDTOs and Jackson writing
+ * a page of PostDTOs, configured the way Spring MVC configures its ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "20", "100" })
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private List<PostDTO> posts;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+
+        posts = new ArrayList<>(items);
+        comments = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Users user = new Users();
+            user.setId((long) i);
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setProfilePhotoUrl("/api/images/" + "0".repeat(64));
+
+            PostDTO post = new PostDTO();
+            post.setId((long) i);
+            post.setAuthorId(user.getId());
+            post.setUsername(user.getUsername());
+            post.setUserEmail(user.getEmail());
+            post.setCaption("A caption of roughly typical length for post number " + i);
+            post.setImageUrl("/api/images/" + "a".repeat(64));
+            post.setCreatedAt(now.minusMinutes(i));
+            post.setLikeCount(i * 3L);
+            post.setCommentCount(i);
+            post.setLikedByCurrentUser(i % 2 == 0);
+            post.setFollowingAuthor(i % 3 == 0);
+            posts.add(post);
+
+            Comment comment = new Comment();
+            comment.setId((long) i);
+            comment.setUser(user);
+            comment.setContent("Comment number " + i);
+            comment.setCreatedAt(now.minusMinutes(i));
+            comment.setUpdatedAt(now.minusMinutes(i));
+            comments.add(comment);
+        }
+    }
+
+    @Benchmark
+    public byte[] postDtoListToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public List<CommentDTO> commentsToDtos() {
+        return comments.stream().map(CommentDTO::of).toList();
+    }
+
+    @Benchmark
+    public byte[] commentsToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(commentsToDtos());
+    }
+}
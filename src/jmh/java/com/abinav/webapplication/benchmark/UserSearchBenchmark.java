@@ -0,0 +1,72 @@
+package com.abinav.webapplication.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abinav.webapplication.utility.UserNameIndex;
+
+/**
+ * Query latency of the in-memory user search index (UserNameIndex), which
+ * replaced the LIKE '%q%' scan behind GET /api/users/search.
+ *
+ * prefix is an as-you-type query, substring a three-plus character query
+ * answered through trigram postings, and miss a query that matches nobody.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final String[] SYLLABLES = { "an", "ber", "cor", "da", "el", "fin", "gar", "ho", "is", "jo",
+            "ka", "li", "mar", "no", "or", "pe", "qu", "ra", "sa", "to", "ul", "vi", "wen", "xa", "yo", "zu" };
+
+    @Param({ "100000" })
+    public int users;
+
+    private UserNameIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new UserNameIndex();
+        Random random = new Random(42);
+        for (long id = 1; id <= users; id++) {
+            StringBuilder name = new StringBuilder();
+            for (int s = 0; s < 3; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            name.append(random.nextInt(1000));
+            index.put(id, name.toString(), name + "@example.com");
+        }
+    }
+
+    @Benchmark
+    public List<Long> prefix() {
+        return index.search("mar", 20);
+    }
+
+    @Benchmark
+    public List<Long> substring() {
+        return index.search("rafin", 20);
+    }
+
+    @Benchmark
+    public List<Long> miss() {
+        return index.search("qqqzz", 20);
+    }
+}
@@ -0,0 +1,39 @@
+package com.abinav.webapplication.actuator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.serviceImpl.SocialGraphIndex;
+
+/**
+ * GET /actuator/socialgraph reports users, edges and the estimated heap
+ * footprint (total and per million edges) of the in-memory follow graph;
+ * POST rebuilds it from the database. Admins only (SecurityConfig), and a
+ * POST while a rebuild is running returns at once with rebuilt=false.
+ */
+@Component
+@Endpoint(id = "socialgraph")
+public class SocialGraphEndpoint {
+
+    @Autowired
+    private SocialGraphIndex socialGraphIndex;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return socialGraphIndex.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        boolean rebuilt = socialGraphIndex.rebuildUnlessRunning();
+        Map<String, Object> stats = new LinkedHashMap<>(socialGraphIndex.stats());
+        stats.put("rebuilt", rebuilt);
+        return stats;
+    }
+}
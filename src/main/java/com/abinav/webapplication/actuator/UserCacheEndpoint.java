@@ -0,0 +1,33 @@
+package com.abinav.webapplication.actuator;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.serviceImpl.UserIdentityCache;
+
+/**
+ * GET /actuator/usercache reports size, hit/miss and eviction counts of the
+ * user identity cache; DELETE clears it.
+ */
+@Component
+@Endpoint(id = "usercache")
+public class UserCacheEndpoint {
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userIdentityCache.stats();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        userIdentityCache.invalidateAll();
+    }
+}
@@ -0,0 +1,93 @@
+package com.abinav.webapplication.connection;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Runs timeline fan-out off the request thread. Bounded; when the queue
+     * is full the publishing thread does the work itself rather than
+     * dropping timeline entries.
+     */
+    @Bean(name = "timelineExecutor")
+    public Executor timelineExecutor(
+            @Value("${app.timeline.fan-out-threads:2}") int threads,
+            @Value("${app.timeline.fan-out-queue:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("timeline-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Decodes profile photos and writes their avatar variants (see
+     * AvatarService). Image decoding is CPU and memory heavy, so this stays
+     * small; when the queue is full the task is dropped and redone the next
+     * time someone asks for a missing variant.
+     */
+    @Bean(name = "avatarExecutor")
+    public Executor avatarExecutor(
+            @Value("${app.avatars.threads:1}") int threads,
+            @Value("${app.avatars.queue:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("avatar-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the background reloads of AnonymousFeedCache, which would
+     * otherwise share the common ForkJoinPool with everything else in the
+     * JVM. A page has at most one reload in flight, so a queue as large as
+     * the cache never rejects one.
+     */
+    @Bean(name = "feedRefreshExecutor")
+    public Executor feedRefreshExecutor(
+            @Value("${app.feed.anonymous-cache.refresh-threads:2}") int threads,
+            @Value("${app.feed.anonymous-cache.max-entries:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("feed-refresh-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes counter-stream events (see CounterStreamService), so a client
+     * that stops reading blocks one of these threads instead of the flush.
+     * Each stream has at most one task queued, so the queue only fills when
+     * every sender is stuck; a rejected stream is closed.
+     */
+    @Bean(name = "counterStreamExecutor")
+    public Executor counterStreamExecutor(
+            @Value("${app.stream.send-threads:4}") int threads,
+            @Value("${app.stream.send-queue:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("counter-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
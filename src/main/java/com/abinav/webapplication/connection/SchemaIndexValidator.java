@@ -0,0 +1,120 @@
+package com.abinav.webapplication.connection;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * Fails startup if an index or unique constraint declared on an entity's
+ * {@code @Table} is missing from the database.
+ *
+ * Hibernate's ddl-auto=validate checks tables and columns but not indexes,
+ * and a missing index only shows up later as slow queries. Indexes are
+ * matched by their column list, not their name, so ones created by hand
+ * under another name still count.
+ */
+@Component
+@ConditionalOnProperty(name = "app.schema.validate-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexValidator.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Injected so this runs after Flyway has migrated the schema
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void validate() throws SQLException {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<List<String>>> table : declaredIndexes().entrySet()) {
+                Set<List<String>> present = existingIndexes(metaData, connection, table.getKey());
+                for (List<String> columns : table.getValue()) {
+                    if (!present.contains(columns)) {
+                        missing.add(table.getKey() + columns);
+                    }
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Database is missing indexes " + missing
+                    + "; run the Flyway migrations in db/migration");
+        }
+        logger.info("Schema index validation passed");
+    }
+
+    // table name -> column lists, from @Table(indexes, uniqueConstraints)
+    private Map<String, List<List<String>>> declaredIndexes() {
+        Map<String, List<List<String>>> declared = new TreeMap<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            if (table == null) {
+                continue;
+            }
+            List<List<String>> columns = declared.computeIfAbsent(normalize(table.name()), k -> new ArrayList<>());
+            for (Index index : table.indexes()) {
+                columns.add(Arrays.stream(index.columnList().split(",")).map(SchemaIndexValidator::normalize).toList());
+            }
+            for (UniqueConstraint constraint : table.uniqueConstraints()) {
+                columns.add(Arrays.stream(constraint.columnNames()).map(SchemaIndexValidator::normalize).toList());
+            }
+        }
+        return declared;
+    }
+
+    private static Set<List<String>> existingIndexes(DatabaseMetaData metaData, Connection connection, String table)
+            throws SQLException {
+        // index name -> columns by ordinal position
+        Map<String, TreeMap<Short, String>> indexes = new TreeMap<>();
+        for (String name : new String[] { table, table.toUpperCase(Locale.ROOT) }) {
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), name, false, true)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (indexName != null && column != null) {
+                        indexes.computeIfAbsent(indexName, k -> new TreeMap<>())
+                                .put(rs.getShort("ORDINAL_POSITION"), normalize(column));
+                    }
+                }
+            }
+            if (!indexes.isEmpty()) {
+                break;
+            }
+        }
+        Set<List<String>> result = new HashSet<>();
+        indexes.values().forEach(columns -> result.add(new ArrayList<>(columns.values())));
+        return result;
+    }
+
+    private static String normalize(String identifier) {
+        return identifier.trim().toLowerCase(Locale.ROOT);
+    }
+}
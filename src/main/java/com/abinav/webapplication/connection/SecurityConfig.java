@@ -1,6 +1,8 @@
 package com.abinav.webapplication.connection;
 
 import com.abinav.webapplication.utility.JwtFilter;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -35,7 +37,8 @@ public class SecurityConfig {
     };
     private static final String[] READ_ONLY_URLS = {
             "/api/users/**",
-            "/api/posts/**"
+            "/api/posts/**",
+            "/api/images/**"
     };
 
     public SecurityConfig(JwtFilter jwtFilter) {
@@ -49,6 +52,11 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
 
+                        // Actuator endpoints other than health can clear caches and rebuild
+                        // indexes: admins only (app.admin.emails)
+                        .requestMatchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class))
+                        .hasRole("ADMIN")
+
                    .requestMatchers(HttpMethod.POST, "/api/users").permitAll() //register
                         // Public endpoints
                     .requestMatchers(PUBLIC_URLS).permitAll()
@@ -0,0 +1,53 @@
+package com.abinav.webapplication.connection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import com.abinav.webapplication.utility.BulkheadFilter;
+
+/**
+ * Request threading. Virtual threads are switched on by Spring Boot itself
+ * (spring.threads.virtual.enabled, see application-virtual-threads.properties):
+ * Tomcat then serves each request, including the JwtFilter chain, on its own
+ * virtual thread, and plain @Async work runs on a virtual-thread executor.
+ * timelineExecutor deliberately stays a bounded platform pool; its queue is
+ * the fan-out backpressure.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true")
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(
+            @Value("${app.bulkhead.max-concurrent:40}") int maxConcurrent,
+            @Value("${app.bulkhead.acquire-timeout-ms:1000}") long acquireTimeoutMillis) {
+        FilterRegistrationBean<BulkheadFilter> registration =
+                new FilterRegistrationBean<>(new BulkheadFilter(maxConcurrent, acquireTimeoutMillis));
+        registration.addUrlPatterns("/api/*");
+        // Ahead of Spring Security, so a rejected request costs no token verification
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode() {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            logger.warn("spring.threads.virtual.enabled is set but the JVM is Java {}; "
+                    + "virtual threads need Java 21, so requests run on platform threads",
+                    Runtime.version().feature());
+        }
+    }
+}
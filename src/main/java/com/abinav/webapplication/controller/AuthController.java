@@ -47,7 +47,7 @@ public class AuthController {
                         var user = userLogic.findByEmail(request.getEmail())
                                         .orElseThrow(() -> new RuntimeException("User not found"));
 
-                        String token = jwtUtil.generateToken(user.getEmail());
+                        String token = jwtUtil.generateToken(user);
 
                         return ResponseEntity.ok(
                                         new LoginResponse(
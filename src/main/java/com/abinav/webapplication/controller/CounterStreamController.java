@@ -0,0 +1,79 @@
+package com.abinav.webapplication.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.abinav.webapplication.exception.AuthenticationException;
+import com.abinav.webapplication.exception.ResourceNotFoundException;
+import com.abinav.webapplication.model.AuthenticatedUser;
+import com.abinav.webapplication.serviceImpl.CounterStreamService;
+
+@RestController
+@RequestMapping("/api/stream/counters")
+public class CounterStreamController {
+
+    @Autowired
+    private CounterStreamService counterStreamService;
+
+    /*
+     * =========================================================
+     * OPEN STREAM
+     * GET /api/stream/counters?posts=1,2,3
+     * =========================================================
+     */
+
+    // Server-Sent Events: "ready" with the stream id, then "counters" updates
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> open(
+            @RequestParam(name = "posts", required = false) List<Long> postIds,
+            Authentication auth) {
+
+        AuthenticatedUser currentUser = AuthenticatedUser.from(auth)
+                .orElseThrow(() -> new AuthenticationException("You must be logged in to stream counters"));
+
+        SseEmitter emitter = counterStreamService.open(currentUser.getId(), postIds == null ? List.of() : postIds);
+        if (emitter == null) {
+            // Clients fall back to the counts they already have and retry later
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "30").build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .header("Cache-Control", "no-cache")
+                .body(emitter);
+    }
+
+    /*
+     * =========================================================
+     * CHANGE WATCHED POSTS
+     * PUT /api/stream/counters/{streamId}
+     * =========================================================
+     */
+
+    @PutMapping("/{streamId}")
+    public ResponseEntity<Void> watch(
+            @PathVariable String streamId,
+            @RequestBody List<Long> postIds,
+            Authentication auth) {
+
+        AuthenticatedUser currentUser = AuthenticatedUser.from(auth)
+                .orElseThrow(() -> new AuthenticationException("You must be logged in to stream counters"));
+
+        if (!counterStreamService.watch(streamId, currentUser.getId(), postIds)) {
+            throw new ResourceNotFoundException("Stream not found");
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,13 +1,14 @@
 package com.abinav.webapplication.controller;
 
+import com.abinav.webapplication.dto.FollowPageDTO;
+import com.abinav.webapplication.dto.UserSnapshot;
 import com.abinav.webapplication.exception.AuthenticationException;
 import com.abinav.webapplication.exception.ResourceNotFoundException;
 import com.abinav.webapplication.exception.ValidationException;
-import com.abinav.webapplication.model.Follow;
-import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.model.AuthenticatedUser;
+import com.abinav.webapplication.service.PostService;
 import com.abinav.webapplication.serviceImpl.FollowServiceImpl;
-import com.abinav.webapplication.serviceImpl.UserServiceImpl;
-import com.abinav.webapplication.utility.UserMapper;
+import com.abinav.webapplication.serviceImpl.UserIdentityCache;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,7 +20,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -30,7 +30,10 @@ public class FollowController {
     private FollowServiceImpl followService;
 
     @Autowired
-    private UserServiceImpl userService;
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private PostService postService;
 
     private static final Logger logger = LoggerFactory.getLogger(FollowController.class);
 
@@ -47,36 +50,33 @@ public class FollowController {
             Authentication auth) throws Exception {
 
         // Authentication check
-        if (auth == null || !auth.isAuthenticated()
-                || "anonymousUser".equals(auth.getPrincipal())) {
+        AuthenticatedUser currentUser = AuthenticatedUser.from(auth).orElse(null);
+        if (currentUser == null) {
             logger.warn("Unauthenticated follow attempt to userId: {}", userId);
             throw new AuthenticationException("You must be logged in to follow a user");
         }
 
-        String email = auth.getName();
-        Users currentUser = userService.findByEmail(email)
-                .orElseThrow(() -> new AuthenticationException("User not found"));
-
         // Self-follow protection
         if (currentUser.getId().equals(userId)) {
-            logger.warn("User {} is trying to follow themselves", email);
+            logger.warn("User {} is trying to follow themselves", currentUser.getEmail());
             throw new ValidationException("Cannot follow yourself");
         }
 
-        Follow follow = followService.followUser(currentUser.getId(), userId);
+        boolean created = followService.followUser(currentUser.getId(), userId);
 
         Map<String, Object> response = new HashMap<>();
         response.put("following", true);
+        response.put("changed", created);
 
-        // IMPORTANT: follow can be NULL (already following)
-        if (follow == null) {
+        if (!created) {
             response.put("message", "Already following");
             return ResponseEntity.ok(response);
         }
 
         response.put("message", "User followed successfully");
-        response.put("follower", UserMapper.toDTO(follow.getFollower()));
-        response.put("following_user", UserMapper.toDTO(follow.getFollowing()));
+        // Both users were just resolved through the identity cache
+        response.put("follower", userIdentityCache.findById(currentUser.getId()).map(UserSnapshot::toDTO).orElse(null));
+        response.put("following_user", userIdentityCache.findById(userId).map(UserSnapshot::toDTO).orElse(null));
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -93,20 +93,14 @@ public class FollowController {
             @PathVariable Long userId,
             Authentication auth) throws Exception {
 
-        if (auth == null || !auth.isAuthenticated()
-                || "anonymousUser".equals(auth.getPrincipal())) {
-            throw new AuthenticationException("You must be logged in");
-        }
-
-        String email = auth.getName();
-        Users currentUser = userService.findByEmail(email)
-                .orElseThrow(() -> new AuthenticationException("User not found"));
+        AuthenticatedUser currentUser = AuthenticatedUser.require(auth);
 
         // ✅ Idempotent unfollow
-        followService.unfollowUser(currentUser.getId(), userId);
+        boolean removed = followService.unfollowUser(currentUser.getId(), userId);
 
         return ResponseEntity.ok(
                 Map.of("following", false,
+                        "changed", removed,
                         "message", "Unfollowed successfully"));
     }
 
@@ -122,14 +116,7 @@ public class FollowController {
             @PathVariable Long userId,
             Authentication auth) throws Exception {
 
-        if (auth == null || !auth.isAuthenticated()
-                || "anonymousUser".equals(auth.getPrincipal())) {
-            throw new AuthenticationException("You must be logged in");
-        }
-
-        String email = auth.getName();
-        Users currentUser = userService.findByEmail(email)
-                .orElseThrow(() -> new AuthenticationException("User not found"));
+        AuthenticatedUser currentUser = AuthenticatedUser.require(auth);
 
         boolean isFollowing = followService.isFollowing(currentUser.getId(), userId);
 
@@ -143,22 +130,32 @@ public class FollowController {
      * =========================================================
      */
 
+    // Paginated newest-first; count is the user's total, nextCursor is null on the last page
     @GetMapping("/{userId}/followers")
-    public ResponseEntity<?> getFollowers(@PathVariable Long userId) throws Exception {
-        List<Follow> followers = followService.getFollowers(userId);
-        return ResponseEntity.ok(
-                Map.of(
-                        "count", followers.size(),
-                        "followers", UserMapper.followersToDTOs(followers)));
+    public ResponseEntity<?> getFollowers(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) throws Exception {
+        FollowPageDTO page = followService.getFollowers(userId, cursor, size);
+        return ResponseEntity.ok(toResponse("followers", page));
     }
 
     @GetMapping("/{userId}/following")
-    public ResponseEntity<?> getFollowing(@PathVariable Long userId) throws Exception {
-        List<Follow> following = followService.getFollowing(userId);
-        return ResponseEntity.ok(
-                Map.of(
-                        "count", following.size(),
-                        "following", UserMapper.followingToDTOs(following)));
+    public ResponseEntity<?> getFollowing(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) throws Exception {
+        FollowPageDTO page = followService.getFollowing(userId, cursor, size);
+        return ResponseEntity.ok(toResponse("following", page));
+    }
+
+    // Map.of rejects the null nextCursor of a last page
+    private static Map<String, Object> toResponse(String key, FollowPageDTO page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", page.getTotal());
+        response.put(key, page.getUsers());
+        response.put("nextCursor", page.getNextCursor());
+        return response;
     }
 
     /*
@@ -187,15 +184,17 @@ public class FollowController {
 
     @GetMapping("/{userId}/profile")
     public ResponseEntity<?> getUserProfile(@PathVariable Long userId) throws Exception {
-        Users user = userService.findById(userId)
+        UserSnapshot user = userIdentityCache.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         long followersCount = followService.getFollowersCount(userId);
         long followingCount = followService.getFollowingCount(userId);
+        long postsCount = postService.getPostCount(userId);
 
         return ResponseEntity.ok(
                 Map.of(
-                        "user", UserMapper.toDTO(user),
+                        "user", user.toDTO(),
+                        "posts_count", postsCount,
                         "followers_count", followersCount,
                         "following_count", followingCount));
     }
@@ -0,0 +1,217 @@
+package com.abinav.webapplication.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.abinav.webapplication.dto.StoredImage;
+import com.abinav.webapplication.exception.ResourceNotFoundException;
+import com.abinav.webapplication.exception.ValidationException;
+import com.abinav.webapplication.model.AuthenticatedUser;
+import com.abinav.webapplication.service.ImageStorageService;
+import com.abinav.webapplication.serviceImpl.AvatarService;
+import com.abinav.webapplication.serviceImpl.UploadRateLimiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    // Tomcat request attributes for handing a file to the connector (sendfile)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private AvatarService avatarService;
+
+    @Autowired
+    private UploadRateLimiter uploadRateLimiter;
+
+    @Value("${app.images.max-bytes:10485760}")
+    private long maxImageBytes = 10_485_760;
+
+    /**
+     * Upload an image as the raw request body (Content-Type: image/*)
+     * POST /api/images
+     *
+     * The body is copied straight from the request stream into the store,
+     * hashed and size-checked as it goes; nothing is buffered whole. Returns
+     * the URL to use as a post's imageUrl. Uploads count against the user's
+     * upload limit, and one no post refers to is swept after a grace period
+     * (ImageSweepJob).
+     */
+    @PostMapping(consumes = "image/*")
+    public ResponseEntity<Map<String, Object>> uploadImage(HttpServletRequest request, Authentication auth)
+            throws IOException {
+        uploadRateLimiter.acquire(AuthenticatedUser.require(auth).getId());
+        if (request.getContentLengthLong() > maxImageBytes) {
+            throw new ValidationException("Image exceeds the maximum size of " + maxImageBytes + " bytes");
+        }
+        StoredImage image = imageStorageService.store(request.getInputStream(), maxImageBytes);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("url", image.getUrl());
+        body.put("hash", image.getHash());
+        body.put("size", image.getSize());
+        body.put("contentType", image.getContentType());
+        return ResponseEntity.status(HttpStatus.CREATED).body(body);
+    }
+
+    /**
+     * Stream an image by its content hash
+     * GET /api/images/{hash}
+     *
+     * Images are immutable (the URL is the content hash), so the hash doubles
+     * as a strong ETag and responses may be cached forever. Supports a single
+     * byte range via the Range header. Under Tomcat the file (or range) is
+     * handed to the connector's sendfile; elsewhere it is copied.
+     */
+    @GetMapping("/{hash}")
+    public void getImage(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        StoredImage image = imageStorageService.find(hash)
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+        serve(image, true, request, response);
+    }
+
+    /**
+     * Square avatar variant of a profile photo
+     * GET /api/images/{hash}/avatar-{size} (size 48, 96 or 256)
+     *
+     * Until the variant has been made, the photo itself is served with a
+     * short cache lifetime and the variant is requested again.
+     */
+    @GetMapping("/{hash}/avatar-{size}")
+    public void getAvatar(@PathVariable String hash, @PathVariable int size,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!StoredImage.AVATAR_SIZES.contains(size)) {
+            throw new ResourceNotFoundException("Unknown avatar size " + size);
+        }
+        StoredImage original = imageStorageService.find(hash)
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+
+        Optional<StoredImage> variant = avatarService.findVariant(hash, size)
+                .flatMap(this::findQuietly);
+        if (variant.isPresent()) {
+            serve(variant.get(), true, request, response);
+            return;
+        }
+        avatarService.schedule(hash);
+        serve(original, false, request, response);
+    }
+
+    private Optional<StoredImage> findQuietly(String hash) {
+        try {
+            return imageStorageService.find(hash);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Content-addressed bytes never change; a fallback served under another URL may
+    private void serve(StoredImage image, boolean immutable, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        String etag = "\"" + image.getHash() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                immutable ? "public, max-age=31536000, immutable" : "public, max-age=60");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = image.getSize();
+        long start = 0;
+        long end = size - 1;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && range.startsWith("bytes=") && !range.contains(",")) {
+            long[] bounds = parseRange(range.substring(6).trim(), size);
+            if (bounds == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long length = end - start + 1;
+        if (image.getContentType() != null) {
+            response.setContentType(image.getContentType());
+        }
+        response.setContentLengthLong(length);
+
+        // When the connector offers sendfile it writes the file region to the
+        // socket itself, without the bytes passing through the JVM
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            Optional<Path> file = imageStorageService.localFile(image.getHash());
+            if (file.isPresent()) {
+                request.setAttribute(SENDFILE_FILENAME, file.get().toString());
+                request.setAttribute(SENDFILE_START, start);
+                // Tomcat's end is exclusive
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+        }
+
+        // Otherwise copy through the response stream
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        imageStorageService.transferTo(image.getHash(), start, length, out);
+    }
+
+    // Returns {start, end} (inclusive) or null when the range can't be satisfied
+    private static long[] parseRange(String spec, long size) {
+        int dash = spec.indexOf('-');
+        if (dash < 0 || size == 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                return new long[] { Math.max(0, size - suffix), size - 1 };
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -6,15 +6,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import com.abinav.webapplication.exception.AuthenticationException;
 import com.abinav.webapplication.exception.ValidationException;
+import com.abinav.webapplication.dto.UserDTO;
 import com.abinav.webapplication.model.Comment;
-import com.abinav.webapplication.model.Like;
-import com.abinav.webapplication.model.Users;
-import com.abinav.webapplication.utility.UserMapper;
+import com.abinav.webapplication.model.CommentDTO;
+import com.abinav.webapplication.model.AuthenticatedUser;
 import com.abinav.webapplication.serviceImpl.CommentServiceImpl;
 import com.abinav.webapplication.serviceImpl.LikeServiceImpl;
-import com.abinav.webapplication.serviceImpl.UserServiceImpl;
 
 import java.util.HashMap;
 import java.util.List;
@@ -30,9 +28,6 @@ public class LikeCommentController {
     @Autowired
     private CommentServiceImpl commentService;
 
-    @Autowired
-    private UserServiceImpl userService;
-
     // ========== LIKES ==========
 
     /**
@@ -41,18 +36,14 @@ public class LikeCommentController {
      */
     @PostMapping("/{postId}/like")
     public ResponseEntity<?> likePost(@PathVariable Long postId, Authentication auth) throws Exception {
-        String email = auth.getName();
-        Users user = userService.findByEmail(email)
-                .orElseThrow(() -> new AuthenticationException("User not found"));
-
-        Like like = likeService.likePost(postId, user.getId());
-        java.util.Map<String, Object> response = new java.util.HashMap<>();
-        response.put("message", "Post liked successfully");
-        java.util.Map<String, Object> likeMap = new java.util.HashMap<>();
-        likeMap.put("id", like.getId());
-        likeMap.put("createdAt", like.getCreatedAt() != null ? like.getCreatedAt().toString() : null);
-        likeMap.put("user", UserMapper.toDTO(like.getUser()));
-        response.put("like", likeMap);
+        Long userId = AuthenticatedUser.require(auth).getId();
+
+        // changed is false when the post was already liked (idempotent)
+        boolean changed = likeService.likePost(postId, userId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", changed ? "Post liked successfully" : "Post already liked");
+        response.put("liked", true);
+        response.put("changed", changed);
         return ResponseEntity.ok(response);
     }
 
@@ -62,13 +53,13 @@ public class LikeCommentController {
      */
     @DeleteMapping("/{postId}/unlike")
     public ResponseEntity<?> unlikePost(@PathVariable Long postId, Authentication auth) throws Exception {
-        String email = auth.getName();
-        Users user = userService.findByEmail(email)
-                .orElseThrow(() -> new AuthenticationException("User not found"));
+        Long userId = AuthenticatedUser.require(auth).getId();
 
-        likeService.unlikePost(postId, user.getId());
-        Map<String, String> response = new HashMap<>();
+        boolean changed = likeService.unlikePost(postId, userId);
+        Map<String, Object> response = new HashMap<>();
         response.put("message", "Post unliked successfully");
+        response.put("liked", false);
+        response.put("changed", changed);
         return ResponseEntity.ok(response);
     }
 
@@ -90,10 +81,10 @@ public class LikeCommentController {
      */
     @GetMapping("/{postId}/likes")
     public ResponseEntity<?> getPostLikes(@PathVariable Long postId) throws Exception {
-        List<Like> likes = likeService.getPostLikes(postId);
+        List<UserDTO> likes = likeService.getPostLikes(postId);
         java.util.Map<String, Object> response = new java.util.HashMap<>();
         response.put("count", likes.size());
-        response.put("likes", UserMapper.likesToDTOs(likes));
+        response.put("likes", likes);
         return ResponseEntity.ok(response);
     }
 
@@ -103,11 +94,9 @@ public class LikeCommentController {
      */
     @GetMapping("/{postId}/liked-by-user")
     public ResponseEntity<?> isLikedByUser(@PathVariable Long postId, Authentication auth) throws Exception {
-        String email = auth.getName();
-        Users user = userService.findByEmail(email)
-                .orElseThrow(() -> new AuthenticationException("User not found"));
+        Long userId = AuthenticatedUser.require(auth).getId();
 
-        boolean isLiked = likeService.isLikedByUser(postId, user.getId());
+        boolean isLiked = likeService.isLikedByUser(postId, userId);
         Map<String, Boolean> response = new HashMap<>();
         response.put("liked", isLiked);
         return ResponseEntity.ok(response);
@@ -127,16 +116,12 @@ public class LikeCommentController {
             throw new ValidationException("Comment text is required");
         }
 
-        String email = auth.getName();
-        Users user = userService.findByEmail(email)
-                .orElseThrow(() -> new AuthenticationException("User not found"));
+        Long userId = AuthenticatedUser.require(auth).getId();
 
-        Comment comment = commentService.addComment(postId, user.getId(), text);
+        Comment comment = commentService.addComment(postId, userId, text);
         java.util.Map<String, Object> response = new java.util.HashMap<>();
         response.put("message", "Comment added successfully");
-        // sanitized comment map
-        Object cm = UserMapper.commentsToMaps(java.util.Arrays.asList(comment)).get(0);
-        response.put("comment", cm);
+        response.put("comment", CommentDTO.of(comment));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -147,11 +132,9 @@ public class LikeCommentController {
     @DeleteMapping("/{postId}/comments/{commentId}")
     public ResponseEntity<?> deleteComment(@PathVariable Long postId, @PathVariable Long commentId,
             Authentication auth) throws Exception {
-        String email = auth.getName();
-        Users user = userService.findByEmail(email)
-                .orElseThrow(() -> new AuthenticationException("User not found"));
+        Long userId = AuthenticatedUser.require(auth).getId();
 
-        commentService.deleteComment(commentId, user.getId());
+        commentService.deleteComment(commentId, userId);
         java.util.Map<String, String> response = new java.util.HashMap<>();
         response.put("message", "Comment deleted successfully");
         return ResponseEntity.ok(response);
@@ -163,10 +146,10 @@ public class LikeCommentController {
      */
     @GetMapping("/{postId}/comments")
     public ResponseEntity<?> getPostComments(@PathVariable Long postId) throws Exception {
-        List<Comment> comments = commentService.getCommentsList(postId);
+        List<CommentDTO> comments = commentService.getCommentsList(postId);
         java.util.Map<String, Object> response = new java.util.HashMap<>();
         response.put("count", comments.size());
-        response.put("comments", UserMapper.commentsToMaps(comments));
+        response.put("comments", comments);
         return ResponseEntity.ok(response);
     }
 
@@ -182,15 +165,12 @@ public class LikeCommentController {
             throw new ValidationException("Comment text is required");
         }
 
-        String email = auth.getName();
-        Users user = userService.findByEmail(email)
-                .orElseThrow(() -> new AuthenticationException("User not found"));
+        Long userId = AuthenticatedUser.require(auth).getId();
 
-        Comment comment = commentService.updateComment(commentId, user.getId(), text);
+        Comment comment = commentService.updateComment(commentId, userId, text);
         java.util.Map<String, Object> response = new java.util.HashMap<>();
         response.put("message", "Comment updated successfully");
-        Object cm = UserMapper.commentsToMaps(java.util.Arrays.asList(comment)).get(0);
-        response.put("comment", cm);
+        response.put("comment", CommentDTO.of(comment));
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
@@ -1,17 +1,34 @@
 package com.abinav.webapplication.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.abinav.webapplication.model.Post;
 import com.abinav.webapplication.dto.PostDTO;
-import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.dto.PostPageDTO;
+import com.abinav.webapplication.model.AuthenticatedUser;
 import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.service.ImageStorageService;
 import com.abinav.webapplication.service.PostService;
+import com.abinav.webapplication.service.TimelineService;
+import com.abinav.webapplication.serviceImpl.AnonymousFeedCache;
+import com.abinav.webapplication.serviceImpl.FeedStreamer;
+import com.abinav.webapplication.serviceImpl.UploadRateLimiter;
+import com.abinav.webapplication.utility.FeedCursor;
+import com.abinav.webapplication.serviceImpl.VersionStamps;
 import com.abinav.webapplication.exception.ResourceNotFoundException;
 import com.abinav.webapplication.exception.UnauthorizedException;
 import com.abinav.webapplication.exception.ValidationException;
@@ -26,69 +43,209 @@ public class PostController {
     @Autowired
     private UserRepository userRepository;
 
-    // Get current user email from JWT token
-    private String getCurrentUserEmail() {
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private VersionStamps versionStamps;
+
+    @Autowired
+    private AnonymousFeedCache anonymousFeedCache;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private FeedStreamer feedStreamer;
+
+    @Autowired
+    private UploadRateLimiter uploadRateLimiter;
+
+    @Value("${app.images.max-bytes:10485760}")
+    private long maxImageBytes = 10_485_760;
+
+    // Get current user id from the JWT principal (null for anonymous viewers)
+    private Long getCurrentUserId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return auth != null ? auth.getName() : null;
+        return AuthenticatedUser.from(auth).map(AuthenticatedUser::getId).orElse(null);
+    }
+
+    // Sets the ETag and returns true (the response is a 304) if the client already has it
+    private boolean notModified(WebRequest request, String etag) {
+        return versionStamps.isEnabled() && request.checkNotModified(etag);
+    }
+
+    // Clients and shared caches must revalidate; the body depends on who is asking
+    private ResponseEntity<ApiResponse> revalidated(String etag, ApiResponse body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+        if (versionStamps.isEnabled()) {
+            response.eTag(etag);
+        }
+        return response.body(body);
     }
 
     // Create a new post
     @PostMapping
     public ResponseEntity<?> createPost(@RequestBody Post post) {
-        String userEmail = getCurrentUserEmail();
-        if (userEmail == null) {
+        Long userId = getCurrentUserId();
+        if (userId == null) {
             throw new UnauthorizedException("User not authenticated");
         }
         if (post.getCaption() == null || post.getCaption().trim().isEmpty()) {
             throw new ValidationException("Post caption cannot be empty");
         }
+        if (post.getImageUrl() != null && post.getImageUrl().startsWith("data:")) {
+            uploadRateLimiter.acquire(userId);
+        }
+
+        return created(post, userId);
+    }
+
+    /**
+     * Create a post with an uploaded image (multipart/form-data: caption, image).
+     * Parts are spooled to disk by the container (file-size-threshold=0), and
+     * the image is streamed from there into the image store, hashed on the way;
+     * only its URL reaches the post. Heap use does not grow with the image.
+     * If the post then fails, the stored image is left to ImageSweepJob.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> createPostWithImage(
+            @RequestParam String caption,
+            @RequestParam(required = false) MultipartFile image) throws IOException {
+        Long userId = getCurrentUserId();
+        if (userId == null) {
+            throw new UnauthorizedException("User not authenticated");
+        }
+        if (caption.trim().isEmpty()) {
+            throw new ValidationException("Post caption cannot be empty");
+        }
 
-        Users user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        Post post = new Post();
+        post.setCaption(caption);
+        if (image != null && !image.isEmpty()) {
+            if (image.getSize() > maxImageBytes) {
+                throw new ValidationException("Image exceeds the maximum size of " + maxImageBytes + " bytes");
+            }
+            uploadRateLimiter.acquire(userId);
+            // Stored before the post's transaction starts, so no connection waits on disk I/O
+            try (InputStream in = image.getInputStream()) {
+                post.setImageUrl(imageStorageService.store(in, maxImageBytes).getUrl());
+            }
+        }
+        return created(post, userId);
+    }
 
-        post.setUser(user);
+    private ResponseEntity<?> created(Post post, Long userId) {
+        // Reference only; the author row is not loaded to create the post
+        post.setUser(userRepository.getReferenceById(userId));
         Post savedPost = postService.createPost(post);
-        PostDTO dto = postService.getPostDTOById(savedPost.getId(), userEmail);
+        PostDTO dto = postService.getPostDTOById(savedPost.getId(), userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(
                 new ApiResponse("Post created successfully", dto));
     }
 
-    // Get all posts (for feed)
+    // Get one page of the feed; pass the returned nextCursor to get the next page.
+    // The ETag is taken before the page is read, so it is never newer than the body
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllPosts() {
-        String userEmail = getCurrentUserEmail();
-        List<PostDTO> posts = postService.getAllPosts(userEmail);
-        return ResponseEntity.ok(
-                new ApiResponse("Posts retrieved successfully", posts));
+    public ResponseEntity<ApiResponse> getAllPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        Long userId = getCurrentUserId();
+        String etag = versionStamps.feedETag(userId);
+        if (notModified(request, etag)) {
+            return null;
+        }
+        if (userId == null && anonymousFeedCache.isEnabled()) {
+            // Shared page, possibly a few seconds old; it carries the ETag it was built under
+            AnonymousFeedCache.Page cached = anonymousFeedCache.get(cursor, size);
+            return revalidated(cached.etag(), new ApiResponse("Posts retrieved successfully", cached.page()));
+        }
+        PostPageDTO page = postService.getFeed(cursor, size, userId);
+        return revalidated(etag, new ApiResponse("Posts retrieved successfully", page));
+    }
+
+    // Bulk read of the feed, streamed as it is read: {"posts":[...],"nextCursor":...},
+    // or one post per line with format=ndjson. limit defaults to and is capped at
+    // app.feed.stream.max-posts. The format is a parameter rather than the Accept
+    // header so that errors can still be answered as JSON
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "json") String format) {
+        boolean lines = format.equalsIgnoreCase("ndjson");
+        if (!lines && !format.equalsIgnoreCase("json")) {
+            throw new ValidationException("format must be json or ndjson");
+        }
+        // The body is written on another thread; resolve the viewer and reject a bad
+        // cursor here, while an error can still be a proper 400
+        Long userId = getCurrentUserId();
+        FeedCursor.decode(cursor);
+        int max = feedStreamer.limit(limit);
+
+        StreamingResponseBody body = lines
+                ? out -> feedStreamer.writeNdjson(out, cursor, max, userId)
+                : out -> feedStreamer.writeJson(out, cursor, max, userId);
+        return ResponseEntity.ok()
+                .contentType(lines ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
-    // Get user's own posts
+    // Home timeline: the caller's posts and posts by people they follow
+    @GetMapping("/timeline")
+    public ResponseEntity<ApiResponse> getTimeline(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        Long userId = getCurrentUserId();
+        if (userId == null) {
+            throw new UnauthorizedException("You must be logged in to view your timeline");
+        }
+        PostPageDTO page = timelineService.getTimeline(userId, cursor, size);
+        return ResponseEntity.ok(new ApiResponse("Timeline retrieved successfully", page));
+    }
+
+    // Get user's own posts (paginated the same way as the feed)
     @GetMapping("/user/{email}")
-    public ResponseEntity<?> getUserPosts(@PathVariable String email) {
+    public ResponseEntity<?> getUserPosts(
+            @PathVariable String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
         if (email == null || email.trim().isEmpty()) {
             throw new ValidationException("Email cannot be empty");
         }
-        List<PostDTO> posts = postService.getUserPosts(email);
-        return ResponseEntity.ok(new ApiResponse("User posts retrieved successfully", posts));
+        String etag = versionStamps.userPostsETag();
+        if (notModified(request, etag)) {
+            return null;
+        }
+        PostPageDTO page = postService.getUserPosts(email, cursor, size);
+        return revalidated(etag, new ApiResponse("User posts retrieved successfully", page));
     }
 
     // Get single post
     @GetMapping("/{postId}")
-    public ResponseEntity<?> getPost(@PathVariable Long postId) {
+    public ResponseEntity<?> getPost(@PathVariable Long postId, WebRequest request) {
         if (postId == null || postId <= 0) {
             throw new ValidationException("Valid post ID is required");
         }
-        String currentUserEmail = getCurrentUserEmail();
-        PostDTO dto = postService.getPostDTOById(postId, currentUserEmail);
-        return ResponseEntity.ok(new ApiResponse("Post retrieved successfully", dto));
+        Long userId = getCurrentUserId();
+        String etag = versionStamps.postETag(postId, userId);
+        if (notModified(request, etag)) {
+            return null;
+        }
+        PostDTO dto = postService.getPostDTOById(postId, userId);
+        return revalidated(etag, new ApiResponse("Post retrieved successfully", dto));
     }
 
     // Update post
     @PutMapping("/{postId}")
     public ResponseEntity<?> updatePost(@PathVariable Long postId, @RequestBody Post post) {
-        String currentUserEmail = getCurrentUserEmail();
+        Long currentUserId = getCurrentUserId();
 
-        if (currentUserEmail == null) {
+        if (currentUserId == null) {
             throw new UnauthorizedException("You must be logged in to edit posts");
         }
 
@@ -97,21 +254,21 @@ public class PostController {
             throw new ResourceNotFoundException("Post with ID " + postId + " not found");
         }
 
-        if (!existingPost.getUser().getEmail().equals(currentUserEmail)) {
+        if (!existingPost.getUser().getId().equals(currentUserId)) {
             throw new UnauthorizedException("You can only edit your own posts");
         }
 
         Post updatedPost = postService.updatePost(postId, post);
-        PostDTO dto = postService.getPostDTOById(updatedPost.getId(), currentUserEmail);
+        PostDTO dto = postService.getPostDTOById(updatedPost.getId(), currentUserId);
         return ResponseEntity.ok(new ApiResponse("Post updated successfully", dto));
     }
 
     // Delete post
     @DeleteMapping("/{postId}")
     public ResponseEntity<?> deletePost(@PathVariable Long postId) {
-        String currentUserEmail = getCurrentUserEmail();
+        Long currentUserId = getCurrentUserId();
 
-        if (currentUserEmail == null) {
+        if (currentUserId == null) {
             throw new UnauthorizedException("You must be logged in to delete posts");
         }
 
@@ -120,7 +277,7 @@ public class PostController {
             throw new ResourceNotFoundException("Post with ID " + postId + " not found");
         }
 
-        if (!post.getUser().getEmail().equals(currentUserEmail)) {
+        if (!post.getUser().getId().equals(currentUserId)) {
             throw new UnauthorizedException("You can only delete your own posts");
         }
 
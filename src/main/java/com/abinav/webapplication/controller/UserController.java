@@ -17,8 +17,11 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.abinav.webapplication.logic.UserLogic;
+import com.abinav.webapplication.model.AuthenticatedUser;
 import com.abinav.webapplication.model.LoginResponse;
 import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.serviceImpl.AvatarService;
+import com.abinav.webapplication.serviceImpl.UploadRateLimiter;
 import com.abinav.webapplication.utility.JwtUtil;
 import com.abinav.webapplication.exception.ResourceNotFoundException;
 import com.abinav.webapplication.exception.ValidationException;
@@ -37,6 +40,12 @@ public class UserController {
 	@Autowired
 	private BCryptPasswordEncoder passwordEncoder;
 
+	@Autowired
+	private AvatarService avatarService;
+
+	@Autowired
+	private UploadRateLimiter uploadRateLimiter;
+
 	@PostMapping
 	@ResponseStatus(code = HttpStatus.CREATED)
 	public ResponseEntity<LoginResponse> createUser(@RequestBody Users user) {
@@ -49,7 +58,7 @@ public class UserController {
 
 		user.setPassword(passwordEncoder.encode(user.getPassword()));
 		Users savedUser = userLogic.createUser(user);
-		String token = jwtUtil.generateToken(savedUser.getEmail());
+		String token = jwtUtil.generateToken(savedUser);
 		return ResponseEntity.status(HttpStatus.CREATED).body(new LoginResponse(token));
 	}
 
@@ -65,6 +74,9 @@ public class UserController {
 	/**
 	 * Update current user's profile photo (provide imageUrl in body)
 	 * PUT /api/users/profile/photo
+	 *
+	 * A data URI is moved into the image store and the user keeps its short
+	 * URL; avatar variants are made in the background.
 	 */
 	@PutMapping("/profile/photo")
 	public ResponseEntity<?> updateProfilePhoto(@RequestBody Map<String, String> body, Authentication auth) {
@@ -73,31 +85,31 @@ public class UserController {
 			throw new ValidationException("imageUrl is required");
 		}
 
-		String email = auth.getName();
-		Users user = userLogic.findByEmail(email)
+		Long userId = AuthenticatedUser.require(auth).getId();
+		Users user = userLogic.findById(userId)
 				.orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-		user.setProfilePhotoUrl(imageUrl);
+		if (imageUrl.startsWith("data:")) {
+			uploadRateLimiter.acquire(userId);
+		}
+		user.setProfilePhotoUrl(avatarService.accept(imageUrl));
 		userLogic.updateUser(user);
 		return ResponseEntity.ok(Collections.singletonMap("message", "Profile photo updated"));
 	}
 
 	/**
-	 * Search users by username or email
-	 * GET /api/users/search?query=...
+	 * Search users by username or email, best matches first
+	 * GET /api/users/search?query=...&limit=20 (limit capped at 50)
 	 */
 	@GetMapping("/search")
-	public ResponseEntity<?> searchUsers(@RequestParam String query) {
+	public ResponseEntity<?> searchUsers(@RequestParam String query,
+			@RequestParam(defaultValue = "20") int limit) {
 		if (query == null || query.trim().isEmpty()) {
 			throw new ValidationException("Search query cannot be empty");
 		}
 
-		java.util.List<Users> results = userLogic.searchUsers(query);
-		java.util.List<com.abinav.webapplication.dto.UserDTO> dtos = new java.util.ArrayList<>();
-		for (Users u : results) {
-			dtos.add(com.abinav.webapplication.utility.UserMapper.toDTO(u));
-		}
-		return ResponseEntity.ok(Collections.singletonMap("results", dtos));
+		java.util.List<com.abinav.webapplication.dto.UserDTO> results = userLogic.searchUsers(query, limit);
+		return ResponseEntity.ok(Collections.singletonMap("results", results));
 	}
 
 }
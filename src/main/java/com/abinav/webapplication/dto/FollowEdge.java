@@ -0,0 +1,40 @@
+package com.abinav.webapplication.dto;
+
+import java.time.LocalDateTime;
+
+import com.abinav.webapplication.utility.FeedCursor;
+
+/**
+ * One row of a follower/following page: the user on the other side of the
+ * follow plus the follow's (createdAt, id), which is the keyset cursor.
+ * Built by JPQL constructor expressions in FollowRepository.
+ */
+public class FollowEdge {
+
+    private final Long followId;
+    private final LocalDateTime followedAt;
+    private final UserDTO user;
+
+    public FollowEdge(Long followId, LocalDateTime followedAt,
+            Long userId, String username, String email, String profilePhotoUrl) {
+        this.followId = followId;
+        this.followedAt = followedAt;
+        this.user = new UserDTO(userId, username, email, profilePhotoUrl);
+    }
+
+    public Long getFollowId() {
+        return followId;
+    }
+
+    public LocalDateTime getFollowedAt() {
+        return followedAt;
+    }
+
+    public UserDTO getUser() {
+        return user;
+    }
+
+    public FeedCursor toCursor() {
+        return new FeedCursor(followedAt, followId);
+    }
+}
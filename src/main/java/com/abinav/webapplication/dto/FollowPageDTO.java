@@ -0,0 +1,48 @@
+package com.abinav.webapplication.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's followers or following, newest follow first.
+ * total comes from the user's maintained counter, not a count query;
+ * nextCursor is null on the last page.
+ */
+public class FollowPageDTO {
+
+    private List<UserDTO> users;
+    private String nextCursor;
+    private long total;
+
+    public FollowPageDTO() {
+    }
+
+    public FollowPageDTO(List<UserDTO> users, String nextCursor, long total) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+        this.total = total;
+    }
+
+    public List<UserDTO> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserDTO> users) {
+        this.users = users;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,42 @@
+package com.abinav.webapplication.dto;
+
+/**
+ * A post's current like and comment counts, as pushed to counter streams.
+ */
+public class PostCounters {
+    private Long id;
+    private long likeCount;
+    private long commentCount;
+
+    public PostCounters() {}
+
+    public PostCounters(Long id, long likeCount, long commentCount) {
+        this.id = id;
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+}
@@ -0,0 +1,37 @@
+package com.abinav.webapplication.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated post list.
+ * nextCursor is null when there are no more posts.
+ */
+public class PostPageDTO {
+
+    private List<PostDTO> posts;
+    private String nextCursor;
+
+    public PostPageDTO() {
+    }
+
+    public PostPageDTO(List<PostDTO> posts, String nextCursor) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PostDTO> getPosts() {
+        return posts;
+    }
+
+    public void setPosts(List<PostDTO> posts) {
+        this.posts = posts;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
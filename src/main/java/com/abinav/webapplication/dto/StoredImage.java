@@ -0,0 +1,58 @@
+package com.abinav.webapplication.dto;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Metadata of an image held by the image store.
+ * The hash (SHA-256, hex) is the image's key and its public URL suffix.
+ */
+public class StoredImage {
+
+    public static final String URL_PREFIX = "/api/images/";
+
+    // Edge lengths, in pixels, of the square avatar variants made from a profile photo
+    public static final List<Integer> AVATAR_SIZES = List.of(48, 96, 256);
+
+    private final String hash;
+    private final long size;
+    private final String contentType;
+
+    public StoredImage(String hash, long size, String contentType) {
+        this.hash = hash;
+        this.size = size;
+        this.contentType = contentType;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getUrl() {
+        return URL_PREFIX + hash;
+    }
+
+    private static final Pattern URL = Pattern.compile(Pattern.quote(URL_PREFIX) + "([0-9a-f]{64})");
+
+    // The hash behind an image store URL, or null for any other URL (external, data URI)
+    public static String hashOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        Matcher m = URL.matcher(url);
+        return m.matches() ? m.group(1) : null;
+    }
+
+    public static String avatarUrl(String hash, int size) {
+        return URL_PREFIX + hash + "/avatar-" + size;
+    }
+}
@@ -1,5 +1,11 @@
 package com.abinav.webapplication.dto;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public class UserDTO {
     private Long id;
     private String username;
@@ -46,4 +52,23 @@ public class UserDTO {
     public void setProfilePhotoUrl(String profilePhotoUrl) {
         this.profilePhotoUrl = profilePhotoUrl;
     }
+
+    /**
+     * Short URLs of the pre-sized avatar variants, keyed by edge length
+     * ("48", "96", "256"). Lists should use these rather than the full
+     * photo. Null when the photo is not in the image store.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getAvatarUrls() {
+        String hash = StoredImage.hashOf(profilePhotoUrl);
+        if (hash == null) {
+            return null;
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (int size : StoredImage.AVATAR_SIZES) {
+            urls.put(Integer.toString(size), StoredImage.avatarUrl(hash, size));
+        }
+        return urls;
+    }
 }
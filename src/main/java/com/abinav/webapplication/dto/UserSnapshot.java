@@ -0,0 +1,55 @@
+package com.abinav.webapplication.dto;
+
+import com.abinav.webapplication.model.Users;
+
+/**
+ * Immutable copy of a user's public identity, safe to share between threads
+ * and requests. Never carries the password hash.
+ */
+public final class UserSnapshot {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String profilePhotoUrl;
+
+    public UserSnapshot(Long id, String username, String email, String profilePhotoUrl) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.profilePhotoUrl = profilePhotoUrl;
+    }
+
+    public static UserSnapshot of(Users user) {
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getEmail(), user.getProfilePhotoUrl());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getProfilePhotoUrl() {
+        return profilePhotoUrl;
+    }
+
+    // Rough heap cost in bytes: object headers plus two bytes per char
+    public int weight() {
+        return 96 + 2 * (length(username) + length(email) + length(profilePhotoUrl));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    public UserDTO toDTO() {
+        return new UserDTO(id, username, email, profilePhotoUrl);
+    }
+}
@@ -0,0 +1,31 @@
+package com.abinav.webapplication.event;
+
+/**
+ * Published when a follow row is actually created or removed (never for
+ * idempotent no-ops).
+ */
+public class FollowChangedEvent {
+
+    private final Long followerId;
+    private final Long followingId;
+    private final boolean following;
+
+    public FollowChangedEvent(Long followerId, Long followingId, boolean following) {
+        this.followerId = followerId;
+        this.followingId = followingId;
+        this.following = following;
+    }
+
+    public Long getFollowerId() {
+        return followerId;
+    }
+
+    public Long getFollowingId() {
+        return followingId;
+    }
+
+    // true for a new follow, false for an unfollow
+    public boolean isFollowing() {
+        return following;
+    }
+}
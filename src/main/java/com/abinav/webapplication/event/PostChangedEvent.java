@@ -0,0 +1,18 @@
+package com.abinav.webapplication.event;
+
+/**
+ * Published when a post's caption or image is edited, or the post is
+ * deleted. Counter changes publish PostCountersChangedEvent instead.
+ */
+public class PostChangedEvent {
+
+    private final Long postId;
+
+    public PostChangedEvent(Long postId) {
+        this.postId = postId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+}
@@ -0,0 +1,30 @@
+package com.abinav.webapplication.event;
+
+/**
+ * Published when a post's like or comment counter actually moved (never for
+ * idempotent no-ops). Carries no values: listeners read the committed
+ * counters when they need them.
+ */
+public class PostCountersChangedEvent {
+
+    private final Long postId;
+    private final Long userId;
+
+    public PostCountersChangedEvent(Long postId) {
+        this(postId, null);
+    }
+
+    public PostCountersChangedEvent(Long postId, Long userId) {
+        this.postId = postId;
+        this.userId = userId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    // The user whose like state changed; null for comments and batched writes
+    public Long getUserId() {
+        return userId;
+    }
+}
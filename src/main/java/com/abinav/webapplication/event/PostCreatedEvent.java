@@ -0,0 +1,24 @@
+package com.abinav.webapplication.event;
+
+/**
+ * Published inside the transaction that creates a post; listeners that
+ * care about committed data use @TransactionalEventListener(AFTER_COMMIT).
+ */
+public class PostCreatedEvent {
+
+    private final Long postId;
+    private final Long authorId;
+
+    public PostCreatedEvent(Long postId, Long authorId) {
+        this.postId = postId;
+        this.authorId = authorId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.LocalDateTime;
 
@@ -167,6 +168,48 @@ public class GlobalExceptionHandler {
                 return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
         }
 
+        /**
+         * Handle MaxUploadSizeExceededException (multipart limits)
+         */
+        @ExceptionHandler(MaxUploadSizeExceededException.class)
+        public ResponseEntity<ErrorResponse> handleMaxUploadSizeExceededException(
+                        MaxUploadSizeExceededException ex,
+                        WebRequest request) {
+
+                log.warn("Upload too large: {}", ex.getMessage());
+
+                ErrorResponse error = ErrorResponse.builder()
+                                .status(HttpStatus.PAYLOAD_TOO_LARGE.value())
+                                .message("Upload exceeds the maximum allowed size")
+                                .error("Payload Too Large")
+                                .path(request.getDescription(false).replace("uri=", ""))
+                                .timestamp(LocalDateTime.now())
+                                .build();
+
+                return new ResponseEntity<>(error, HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+
+        /**
+         * Handle TooManyRequestsException (rate limits)
+         */
+        @ExceptionHandler(TooManyRequestsException.class)
+        public ResponseEntity<ErrorResponse> handleTooManyRequestsException(
+                        TooManyRequestsException ex,
+                        WebRequest request) {
+
+                log.warn("Rate limited: {}", ex.getMessage());
+
+                ErrorResponse error = ErrorResponse.builder()
+                                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                                .message(ex.getMessage())
+                                .error("Too Many Requests")
+                                .path(request.getDescription(false).replace("uri=", ""))
+                                .timestamp(LocalDateTime.now())
+                                .build();
+
+                return new ResponseEntity<>(error, HttpStatus.TOO_MANY_REQUESTS);
+        }
+
         /**
          * Handle all other generic exceptions
          */
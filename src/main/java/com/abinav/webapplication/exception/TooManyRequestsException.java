@@ -0,0 +1,10 @@
+package com.abinav.webapplication.exception;
+
+/**
+ * Exception thrown when a user exceeds a rate limit
+ */
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
+import com.abinav.webapplication.dto.UserDTO;
 import com.abinav.webapplication.model.Users;
 import com.abinav.webapplication.service.UserService;
 
@@ -34,12 +35,16 @@ public class UserLogic implements UserDetailsService {
 		return userService.findByEmail(email);
 	}
 
+	public java.util.Optional<Users> findById(Long id) {
+		return userService.findById(id);
+	}
+
 	public Users updateUser(Users user) {
 		return userService.updateUser(user);
 	}
 
-	public java.util.List<Users> searchUsers(String query) {
-		return userService.searchUsers(query);
+	public java.util.List<UserDTO> searchUsers(String query, int limit) {
+		return userService.searchUsers(query, limit);
 	}
 
 }
@@ -0,0 +1,55 @@
+package com.abinav.webapplication.model;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.Optional;
+
+import org.springframework.security.core.Authentication;
+
+import com.abinav.webapplication.exception.AuthenticationException;
+
+/**
+ * Principal built by JwtFilter straight from the token's claims, so
+ * authenticated requests know who the caller is without a database lookup.
+ * getName() is the email, which keeps Authentication.getName() unchanged.
+ */
+public class AuthenticatedUser implements Principal, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String email;
+    private final String username;
+
+    public AuthenticatedUser(Long id, String email, String username) {
+        this.id = id;
+        this.email = email;
+        this.username = username;
+    }
+
+    public Long getId() { return id; }
+
+    public String getEmail() { return email; }
+
+    public String getUsername() { return username; }
+
+    @Override
+    public String getName() { return email; }
+
+    // Empty for anonymous or unauthenticated requests
+    public static Optional<AuthenticatedUser> from(Authentication auth) {
+        if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    public static AuthenticatedUser require(Authentication auth) {
+        return from(auth).orElseThrow(() -> new AuthenticationException("You must be logged in"));
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
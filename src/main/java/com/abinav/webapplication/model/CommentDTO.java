@@ -2,23 +2,40 @@ package com.abinav.webapplication.model;
 
 import java.time.LocalDateTime;
 
+import com.abinav.webapplication.dto.UserDTO;
+
+/**
+ * A comment as the API returns it, with its author inlined. List endpoints
+ * build these straight from a JPQL constructor expression (see
+ * CommentRepository.findDTOsByPostId), so no Comment or Users entities are
+ * materialized for them.
+ */
 public class CommentDTO {
 
     private Long id;
-    private String username;
-    private String userEmail;
     private String content;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private UserDTO user;
 
     public CommentDTO() {
     }
 
-    public CommentDTO(Long id, String username, String userEmail, String content, LocalDateTime createdAt) {
+    // Constructor expression target; keep the argument order in sync with CommentRepository
+    public CommentDTO(Long id, String content, LocalDateTime createdAt, LocalDateTime updatedAt,
+            Long userId, String username, String userEmail, String profilePhotoUrl) {
         this.id = id;
-        this.username = username;
-        this.userEmail = userEmail;
         this.content = content;
         this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.user = new UserDTO(userId, username, userEmail, profilePhotoUrl);
+    }
+
+    public static CommentDTO of(Comment comment) {
+        Users author = comment.getUser();
+        return new CommentDTO(comment.getId(), comment.getContent(), comment.getCreatedAt(),
+                comment.getUpdatedAt(), author.getId(), author.getUsername(), author.getEmail(),
+                author.getProfilePhotoUrl());
     }
 
     public Long getId() {
@@ -28,20 +45,6 @@ public class CommentDTO {
         this.id = id;
     }
 
-    public String getUsername() {
-        return username;
-    }
-    public void setUsername(String username) {
-        this.username = username;
-    }
-
-    public String getUserEmail() {
-        return userEmail;
-    }
-    public void setUserEmail(String userEmail) {
-        this.userEmail = userEmail;
-    }
-
     public String getContent() {
         return content;
     }
@@ -55,4 +58,18 @@ public class CommentDTO {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public UserDTO getUser() {
+        return user;
+    }
+    public void setUser(UserDTO user) {
+        this.user = user;
+    }
 }
@@ -12,21 +12,28 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "follows")
+@Table(name = "follows",
+        uniqueConstraints = @UniqueConstraint(name = "uk_follows_follower_following", columnNames = { "follower_id", "following_id" }),
+        indexes = {
+                @Index(name = "idx_follows_following", columnList = "following_id, follower_id"),
+                // Keyset pages of followers / following, newest first
+                @Index(name = "idx_follows_following_created", columnList = "following_id, created_at, id"),
+                @Index(name = "idx_follows_follower_created", columnList = "follower_id, created_at, id")
+        })
 public class Follow {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "follower_id", nullable = false)
     private Users follower; // The user who is following
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "following_id", nullable = false)
     private Users following; // The user being followed
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
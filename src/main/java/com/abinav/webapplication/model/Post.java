@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Getter
@@ -12,13 +14,18 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "posts")
+@DynamicUpdate // never write back stale counter values when editing a post
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created", columnList = "created_at, id"),
+        @Index(name = "idx_posts_user_created", columnList = "user_id, created_at, id")
+})
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // Lazy like every association here; read paths ask for the author with an entity graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private Users user;
 
@@ -28,6 +35,16 @@ public class Post {
     @Column(columnDefinition = "LONGTEXT")
     private String imageUrl; // Base64 or URL to image
 
+    // Denormalized counters, maintained with atomic SQL increments by the
+    // like/comment services (see PostRepository.adjustLikeCount)
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false)
+    private long likeCount;
+
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+    private long commentCount;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
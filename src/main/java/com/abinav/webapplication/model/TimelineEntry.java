@@ -0,0 +1,33 @@
+package com.abinav.webapplication.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * One post in one user's materialized home timeline. Rows are written in bulk
+ * by TimelineServiceImpl with native SQL; the entity exists for reads.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "timeline_entries", indexes = {
+        @Index(name = "idx_timeline_user_created", columnList = "user_id, created_at, post_id"),
+        @Index(name = "idx_timeline_user_author", columnList = "user_id, author_id")
+})
+public class TimelineEntry {
+    @EmbeddedId
+    private TimelineEntryId id;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    // The post's created_at, copied so pages can be ordered without a join
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
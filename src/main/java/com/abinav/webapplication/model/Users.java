@@ -1,21 +1,27 @@
 package com.abinav.webapplication.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 	
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+		@Index(name = "idx_users_email", columnList = "email"),
+		@Index(name = "idx_users_follower_count", columnList = "follower_count")
+})
 public class Users {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +32,16 @@ public class Users {
 	private String email;
 	private String profilePhotoUrl;
 
+	// Denormalized follow counters, maintained with atomic SQL updates by
+	// FollowServiceImpl (see UserRepository.adjustFollowCounts); never written by JPA
+	@ColumnDefault("0")
+	@Column(name = "follower_count", nullable = false, insertable = false, updatable = false)
+	private long followerCount;
+
+	@ColumnDefault("0")
+	@Column(name = "following_count", nullable = false, insertable = false, updatable = false)
+	private long followingCount;
+
 	// Explicit getters/setters (for Lombok compatibility)
 	public Long getId() { return id; }
 	public void setId(Long id) { this.id = id; }
@@ -41,4 +57,7 @@ public class Users {
 
 	public String getProfilePhotoUrl() { return profilePhotoUrl; }
 	public void setProfilePhotoUrl(String profilePhotoUrl) { this.profilePhotoUrl = profilePhotoUrl; }
+
+	public long getFollowerCount() { return followerCount; }
+	public long getFollowingCount() { return followingCount; }
 }
@@ -2,10 +2,18 @@ package com.abinav.webapplication.repository;
 
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.abinav.webapplication.model.Comment;
+import com.abinav.webapplication.model.CommentDTO;
 import com.abinav.webapplication.model.Post;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByPostOrderByCreatedAtDesc(Post post);
+    // Comment list rows with their author, projected straight into CommentDTO
+    @Query("select new com.abinav.webapplication.model.CommentDTO(c.id, c.content, c.createdAt, c.updatedAt, "
+            + "u.id, u.username, u.email, u.profilePhotoUrl) "
+            + "from Comment c join c.user u where c.post.id = :postId order by c.createdAt desc")
+    List<CommentDTO> findDTOsByPostId(@Param("postId") Long postId);
+
     long countByPost(Post post);
 }
@@ -1,16 +1,76 @@
 package com.abinav.webapplication.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.abinav.webapplication.dto.FollowEdge;
 import com.abinav.webapplication.model.Follow;
 import com.abinav.webapplication.model.Users;
 
 public interface FollowRepository extends JpaRepository<Follow, Long> {
     Optional<Follow> findByFollowerAndFollowing(Users follower, Users following);
+    // Lists fetch the user on the other side of the follow in the same select
+    @EntityGraph(attributePaths = "following")
     List<Follow> findByFollower(Users follower);
+
+    @EntityGraph(attributePaths = "follower")
     List<Follow> findByFollowing(Users following);
+
+    /*
+     * Follower / following pages, keyset-paginated on (createdAt desc, id desc)
+     * over idx_follows_following_created / idx_follows_follower_created and
+     * projected straight into FollowEdge.
+     */
+
+    @Query("select new com.abinav.webapplication.dto.FollowEdge(f.id, f.createdAt, u.id, u.username, u.email, u.profilePhotoUrl) "
+            + "from Follow f join f.follower u where f.following.id = :userId "
+            + "order by f.createdAt desc, f.id desc")
+    List<FollowEdge> findFollowersFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("select new com.abinav.webapplication.dto.FollowEdge(f.id, f.createdAt, u.id, u.username, u.email, u.profilePhotoUrl) "
+            + "from Follow f join f.follower u where f.following.id = :userId "
+            + "and (f.createdAt < :createdAt or (f.createdAt = :createdAt and f.id < :id)) "
+            + "order by f.createdAt desc, f.id desc")
+    List<FollowEdge> findFollowersPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Limit limit);
+
+    @Query("select new com.abinav.webapplication.dto.FollowEdge(f.id, f.createdAt, u.id, u.username, u.email, u.profilePhotoUrl) "
+            + "from Follow f join f.following u where f.follower.id = :userId "
+            + "order by f.createdAt desc, f.id desc")
+    List<FollowEdge> findFollowingFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("select new com.abinav.webapplication.dto.FollowEdge(f.id, f.createdAt, u.id, u.username, u.email, u.profilePhotoUrl) "
+            + "from Follow f join f.following u where f.follower.id = :userId "
+            + "and (f.createdAt < :createdAt or (f.createdAt = :createdAt and f.id < :id)) "
+            + "order by f.createdAt desc, f.id desc")
+    List<FollowEdge> findFollowingPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Limit limit);
+
     long countByFollower(Users follower);
     long countByFollowing(Users following);
     boolean existsByFollowerAndFollowing(Users follower, Users following);
+
+    // Which of the given users does the follower follow? (feed hydration)
+    @Query("select f.following.id from Follow f where f.follower = :follower and f.following.id in :userIds")
+    List<Long> findFollowedUserIds(@Param("follower") Users follower, @Param("userIds") Collection<Long> userIds);
+
+    // Idempotent writes backed by uk_follows_follower_following; return rows changed (0 or 1)
+    @Modifying
+    @Query(value = "insert ignore into follows (follower_id, following_id, created_at) "
+            + "values (:followerId, :followingId, current_timestamp(6))", nativeQuery = true)
+    int insertIfAbsent(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+
+    @Modifying
+    @Query("delete from Follow f where f.follower.id = :followerId and f.following.id = :followingId")
+    int deleteByFollowerIdAndFollowingId(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+
+    @Query("select count(f) > 0 from Follow f where f.follower.id = :followerId and f.following.id = :followingId")
+    boolean existsByFollowerIdAndFollowingId(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
 }
@@ -1,15 +1,43 @@
 package com.abinav.webapplication.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.abinav.webapplication.dto.UserDTO;
 import com.abinav.webapplication.model.Like;
 import com.abinav.webapplication.model.Post;
 import com.abinav.webapplication.model.Users;
 
 public interface LikeRepository extends JpaRepository<Like, Long> {
     Optional<Like> findByUserAndPost(Users user, Post post);
-    List<Like> findByPost(Post post);
+    // Likers as DTOs straight from the select list; no Like or Users entities are built
+    @Query("select new com.abinav.webapplication.dto.UserDTO(u.id, u.username, u.email, u.profilePhotoUrl) "
+            + "from Like l join l.user u where l.post.id = :postId order by l.id desc")
+    List<UserDTO> findLikerDTOsByPostId(@Param("postId") Long postId);
     long countByPost(Post post);
     boolean existsByUserAndPost(Users user, Post post);
+
+    // Batched lookup used by feed hydration (one statement per page)
+    @Query("select l.post.id from Like l where l.user = :user and l.post.id in :postIds")
+    List<Long> findLikedPostIds(@Param("user") Users user, @Param("postIds") Collection<Long> postIds);
+
+    // Single-statement idempotent writes backed by uk_likes_user_post; both
+    // return the number of rows changed (0 or 1). INSERT IGNORE rather than
+    // ON DUPLICATE KEY UPDATE because Connector/J reports a matched duplicate
+    // as 1 row unless useAffectedRows is set.
+    @Modifying
+    @Query(value = "insert ignore into likes (user_id, post_id, created_at) values (:userId, :postId, current_timestamp(6))",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Modifying
+    @Query("delete from Like l where l.user.id = :userId and l.post.id = :postId")
+    int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Query("select count(l) > 0 from Like l where l.user.id = :userId and l.post.id = :postId")
+    boolean existsByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
 }
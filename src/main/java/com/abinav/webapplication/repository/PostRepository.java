@@ -1,11 +1,142 @@
 package com.abinav.webapplication.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import com.abinav.webapplication.dto.PostCounters;
 import com.abinav.webapplication.model.Post;
 import com.abinav.webapplication.model.Users;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
-    List<Post> findByUserOrderByCreatedAtDesc(Users user);
-    List<Post> findAllByOrderByCreatedAtDesc();
+
+    /*
+     * Keyset pagination: pages are ordered by (createdAt desc, id desc) and the
+     * next page seeks past the last row of the previous one instead of using
+     * OFFSET. The author is fetched in the same select.
+     */
+
+    @EntityGraph(attributePaths = "user")
+    @Query("select p from Post p order by p.createdAt desc, p.id desc")
+    List<Post> findFeedFirstPage(Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("select p from Post p where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id) "
+            + "order by p.createdAt desc, p.id desc")
+    List<Post> findFeedPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Profile post count; answered from idx_posts_user_created
+    long countByUserId(Long userId);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("select p from Post p where p.user = :user order by p.createdAt desc, p.id desc")
+    List<Post> findUserFirstPage(@Param("user") Users user, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("select p from Post p where p.user = :user "
+            + "and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)) "
+            + "order by p.createdAt desc, p.id desc")
+    List<Post> findUserPageAfter(@Param("user") Users user, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Limit limit);
+
+    // Single post with its author, for building a PostDTO
+    @EntityGraph(attributePaths = "user")
+    @Query("select p from Post p where p.id = :id")
+    Optional<Post> findWithUserById(@Param("id") Long id);
+
+    // The same, plus whether the viewer likes it, in one statement
+    @Query("select p, case when exists (select 1 from Like l where l.post = p and l.user.id = :viewerId) "
+            + "then true else false end from Post p join fetch p.user where p.id = :id")
+    List<Object[]> findWithUserAndLikedById(@Param("id") Long id, @Param("viewerId") Long viewerId);
+
+    /*
+     * Home timeline: posts by id (materialized entries) and, for authors too
+     * big to fan out, keyset pages across several authors at once
+     */
+
+    @EntityGraph(attributePaths = "user")
+    @Query("select p from Post p where p.id in :ids")
+    List<Post> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("select p from Post p where p.user.id in :authorIds order by p.createdAt desc, p.id desc")
+    List<Post> findAuthorsFirstPage(@Param("authorIds") Collection<Long> authorIds, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("select p from Post p where p.user.id in :authorIds "
+            + "and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)) "
+            + "order by p.createdAt desc, p.id desc")
+    List<Post> findAuthorsPageAfter(@Param("authorIds") Collection<Long> authorIds,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    /*
+     * Legacy inline images: rows whose imageUrl still holds a base64 data URI.
+     * Used by the one-off migration into the image store.
+     */
+
+    @Query("select p.id from Post p where p.id > :afterId and p.imageUrl like 'data:%' order by p.id")
+    List<Long> findInlineImagePostIds(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select p.imageUrl from Post p where p.id = :id")
+    String findImageUrlById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Post p set p.imageUrl = :imageUrl where p.id = :id")
+    int updateImageUrl(@Param("id") Long id, @Param("imageUrl") String imageUrl);
+
+    // Image store URLs in an id range, for the sweep of unreferenced images
+    @Query("select p.imageUrl from Post p where p.id between :fromId and :toId and p.imageUrl like '/api/images/%'")
+    List<String> findStoredImageUrls(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /*
+     * Denormalized like/comment counters. Increments are single atomic
+     * statements so concurrent writers never lose an update.
+     */
+
+    @Query("select p.likeCount from Post p where p.id = :id")
+    Optional<Long> findLikeCountById(@Param("id") Long id);
+
+    @Query("select p.commentCount from Post p where p.id = :id")
+    Optional<Long> findCommentCountById(@Param("id") Long id);
+
+    // Counter streams: current values of every post that changed in a flush window
+    @Query("select new com.abinav.webapplication.dto.PostCounters(p.id, p.likeCount, p.commentCount) "
+            + "from Post p where p.id in :ids")
+    List<PostCounters> findCountersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "update posts set like_count = greatest(like_count + :delta, 0) where id = :id", nativeQuery = true)
+    int adjustLikeCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "update posts set comment_count = greatest(comment_count + :delta, 0) where id = :id", nativeQuery = true)
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // Reconciliation: recompute counters from the source tables for an id range,
+    // touching only rows that drifted
+
+    @Query("select coalesce(max(p.id), 0) from Post p")
+    long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query(value = "update posts p set like_count = (select count(*) from likes l where l.post_id = p.id) "
+            + "where p.id between :fromId and :toId "
+            + "and like_count <> (select count(*) from likes l where l.post_id = p.id)", nativeQuery = true)
+    int reconcileLikeCounts(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update posts p set comment_count = (select count(*) from comments c where c.post_id = p.id) "
+            + "where p.id between :fromId and :toId "
+            + "and comment_count <> (select count(*) from comments c where c.post_id = p.id)", nativeQuery = true)
+    int reconcileCommentCounts(@Param("fromId") long fromId, @Param("toId") long toId);
 }
@@ -0,0 +1,93 @@
+package com.abinav.webapplication.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import com.abinav.webapplication.model.TimelineEntry;
+import com.abinav.webapplication.model.TimelineEntryId;
+
+public interface TimelineRepository extends JpaRepository<TimelineEntry, TimelineEntryId> {
+
+    /*
+     * Reads: keyset pages of one user's timeline, newest first
+     */
+
+    @Query("select e from TimelineEntry e where e.id.userId = :userId order by e.createdAt desc, e.id.postId desc")
+    List<TimelineEntry> findFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("select e from TimelineEntry e where e.id.userId = :userId "
+            + "and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.id.postId < :postId)) "
+            + "order by e.createdAt desc, e.id.postId desc")
+    List<TimelineEntry> findPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("postId") Long postId, Limit limit);
+
+    /*
+     * Writes: set-based and idempotent (INSERT IGNORE on the primary key), so
+     * a retried fan-out never duplicates entries
+     */
+
+    // The post into every follower's timeline, plus the author's own
+    @Transactional
+    @Modifying
+    @Query(value = "insert ignore into timeline_entries (user_id, post_id, author_id, created_at) "
+            + "select f.follower_id, p.id, p.user_id, p.created_at from follows f "
+            + "join posts p on p.user_id = f.following_id where p.id = :postId "
+            + "union all select p.user_id, p.id, p.user_id, p.created_at from posts p where p.id = :postId",
+            nativeQuery = true)
+    int fanOut(@Param("postId") Long postId);
+
+    // Only the author's own timeline (celebrity posts are merged on read instead)
+    @Transactional
+    @Modifying
+    @Query(value = "insert ignore into timeline_entries (user_id, post_id, author_id, created_at) "
+            + "select p.user_id, p.id, p.user_id, p.created_at from posts p where p.id = :postId",
+            nativeQuery = true)
+    int insertOwn(@Param("postId") Long postId);
+
+    // Recent posts of a newly followed author
+    @Transactional
+    @Modifying
+    @Query(value = "insert ignore into timeline_entries (user_id, post_id, author_id, created_at) "
+            + "select :userId, p.id, p.user_id, p.created_at from posts p where p.user_id = :authorId "
+            + "order by p.created_at desc, p.id desc limit :limit",
+            nativeQuery = true)
+    int backfill(@Param("userId") Long userId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TimelineEntry e where e.id.userId = :userId and e.authorId = :authorId")
+    int deleteAuthorEntries(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    /*
+     * Trimming: timelines are bounded to a fixed number of entries
+     */
+
+    @Query(value = "select user_id from timeline_entries group by user_id having count(*) > :maxEntries",
+            nativeQuery = true)
+    List<Long> findUserIdsOverLimit(@Param("maxEntries") long maxEntries);
+
+    // Page of size 1 at offset N: the newest entry that falls outside the first N
+    @Query("select e from TimelineEntry e where e.id.userId = :userId order by e.createdAt desc, e.id.postId desc")
+    List<TimelineEntry> findEntryAt(@Param("userId") Long userId, Pageable position);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TimelineEntry e where e.id.userId = :userId "
+            + "and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.id.postId <= :postId))")
+    int deleteOlderThan(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("postId") Long postId);
+
+    /*
+     * Celebrities: authors with enough followers that fan-out is skipped
+     */
+
+    // Range scan on idx_users_follower_count
+    @Query("select u.id from Users u where u.followerCount >= :threshold")
+    List<Long> findUserIdsWithFollowersAtLeast(@Param("threshold") long threshold);
+}
@@ -1,8 +1,14 @@
 package com.abinav.webapplication.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.abinav.webapplication.model.Users;
 
@@ -12,7 +18,59 @@ public interface UserRepository extends JpaRepository<Users, Long> {
 
 	Optional<Users> findByEmail(String email);
 
-	// Search users by username or email (case-insensitive, partial match)
-	java.util.List<Users> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(String username, String email);
+	// Search users by username or email (case-insensitive, partial match). A full
+	// scan; only used until UserSearchIndex has loaded
+	java.util.List<Users> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(String username, String email,
+			Limit limit);
 
+	/*
+	 * Denormalized follower/following counters. A follow edge moves both
+	 * users' counters in one atomic statement.
+	 */
+
+	@Query("select u.followerCount from Users u where u.id = :id")
+	Optional<Long> findFollowerCountById(@Param("id") Long id);
+
+	@Query("select u.followingCount from Users u where u.id = :id")
+	Optional<Long> findFollowingCountById(@Param("id") Long id);
+
+	@Modifying
+	@Query(value = "update users set "
+			+ "following_count = case when id = :followerId then greatest(following_count + :delta, 0) else following_count end, "
+			+ "follower_count = case when id = :followingId then greatest(follower_count + :delta, 0) else follower_count end "
+			+ "where id in (:followerId, :followingId)", nativeQuery = true)
+	int adjustFollowCounts(@Param("followerId") Long followerId, @Param("followingId") Long followingId,
+			@Param("delta") int delta);
+
+	// Reconciliation: recompute counters from follows for an id range, touching only rows that drifted
+
+	@Query("select coalesce(max(u.id), 0) from Users u")
+	long findMaxId();
+
+	@Transactional
+	@Modifying
+	@Query(value = "update users u set follower_count = (select count(*) from follows f where f.following_id = u.id) "
+			+ "where u.id between :fromId and :toId "
+			+ "and follower_count <> (select count(*) from follows f where f.following_id = u.id)", nativeQuery = true)
+	int reconcileFollowerCounts(@Param("fromId") long fromId, @Param("toId") long toId);
+
+	@Transactional
+	@Modifying
+	@Query(value = "update users u set following_count = (select count(*) from follows f where f.follower_id = u.id) "
+			+ "where u.id between :fromId and :toId "
+			+ "and following_count <> (select count(*) from follows f where f.follower_id = u.id)", nativeQuery = true)
+	int reconcileFollowingCounts(@Param("fromId") long fromId, @Param("toId") long toId);
+
+	/*
+	 * Legacy inline profile photos: rows whose profilePhotoUrl still holds a
+	 * base64 data URI. Used by the one-off migration into the image store.
+	 */
+
+	@Query("select u.id from Users u where u.id > :afterId and u.profilePhotoUrl like 'data:%' order by u.id")
+	List<Long> findInlinePhotoUserIds(@Param("afterId") Long afterId, Limit limit);
+
+	// Image store URLs in an id range, for the sweep of unreferenced images
+	@Query("select u.profilePhotoUrl from Users u where u.id between :fromId and :toId "
+			+ "and u.profilePhotoUrl like '/api/images/%'")
+	List<String> findStoredPhotoUrls(@Param("fromId") long fromId, @Param("toId") long toId);
 }
@@ -0,0 +1,68 @@
+package com.abinav.webapplication.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.serviceImpl.VersionStamps;
+
+/**
+ * Repairs drift in the denormalized like/comment counters on posts and the
+ * follower/following counters on users.
+ *
+ * Counters are kept up to date on write; this job is the safety net for rows
+ * written outside the services (manual SQL, failed deploys, restores). Rows
+ * are walked in id ranges so each UPDATE stays short.
+ */
+@Component
+public class CounterReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterReconciliationJob.class);
+    private static final long BATCH_SIZE = 1000;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VersionStamps versionStamps;
+
+    @Scheduled(initialDelayString = "${app.counters.reconcile-initial-delay-ms:60000}",
+            fixedDelayString = "${app.counters.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        long maxId = postRepository.findMaxId();
+        int likesFixed = 0;
+        int commentsFixed = 0;
+
+        for (long from = 1; from <= maxId; from += BATCH_SIZE) {
+            long to = from + BATCH_SIZE - 1;
+            likesFixed += postRepository.reconcileLikeCounts(from, to);
+            commentsFixed += postRepository.reconcileCommentCounts(from, to);
+        }
+
+        long maxUserId = userRepository.findMaxId();
+        int followsFixed = 0;
+        for (long from = 1; from <= maxUserId; from += BATCH_SIZE) {
+            long to = from + BATCH_SIZE - 1;
+            followsFixed += userRepository.reconcileFollowerCounts(from, to);
+            followsFixed += userRepository.reconcileFollowingCounts(from, to);
+        }
+
+        if (likesFixed > 0 || commentsFixed > 0) {
+            // Repaired counts change post bodies without any event
+            versionStamps.allPostsChanged();
+        }
+        if (likesFixed > 0 || commentsFixed > 0 || followsFixed > 0) {
+            logger.warn("Counter reconciliation repaired {} like counts, {} comment counts and {} follow counts",
+                    likesFixed, commentsFixed, followsFixed);
+        } else {
+            logger.debug("Counter reconciliation found no drift");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.abinav.webapplication.scheduler;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.serviceImpl.CounterStreamService;
+
+/**
+ * Closes each counter-stream batching window: everything that changed since
+ * the previous run goes out as one message per client.
+ */
+@Component
+public class CounterStreamFlushJob {
+
+    @Autowired
+    private CounterStreamService counterStreamService;
+
+    @Scheduled(fixedDelayString = "${app.stream.flush-interval-ms:250}")
+    public void flush() {
+        counterStreamService.flush();
+    }
+}
@@ -0,0 +1,103 @@
+package com.abinav.webapplication.scheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.dto.StoredImage;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.service.ImageStorageService;
+
+/**
+ * Deletes stored images that nothing refers to: raw uploads never used in a
+ * post, images of posts whose creation failed after the upload, replaced
+ * profile photos and images of deleted posts.
+ *
+ * Only images stored longer than app.images.sweep.grace-ms ago are
+ * considered, so an upload has that long to end up on a post; storing the
+ * same bytes again restarts the clock. Avatar variants live as long as
+ * their photo. Up to app.images.sweep.batch candidates are checked per run
+ * against posts and users, walked in id ranges like the counter
+ * reconciliation.
+ */
+@Component
+public class ImageSweepJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageSweepJob.class);
+    private static final long BATCH_SIZE = 1000;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.images.sweep.grace-ms:86400000}")
+    private long graceMillis = 86_400_000;
+
+    @Value("${app.images.sweep.batch:10000}")
+    private int maxCandidates = 10_000;
+
+    @Scheduled(initialDelayString = "${app.images.sweep.initial-delay-ms:600000}",
+            fixedDelayString = "${app.images.sweep.interval-ms:86400000}")
+    public void sweep() throws IOException {
+        Instant cutoff = Instant.now().minusMillis(graceMillis);
+
+        Set<String> candidates = new LinkedHashSet<>();
+        imageStorageService.forEachStoredBefore(cutoff, hash -> {
+            if (candidates.size() < maxCandidates) {
+                candidates.add(hash);
+            }
+        });
+        candidates.removeIf(this::isVariantOfStoredImage);
+        if (candidates.isEmpty()) {
+            logger.debug("Image sweep found nothing to check");
+            return;
+        }
+
+        keepReferenced(candidates, postRepository::findMaxId, postRepository::findStoredImageUrls);
+        keepReferenced(candidates, userRepository::findMaxId, userRepository::findStoredPhotoUrls);
+
+        int deleted = 0;
+        for (String hash : candidates) {
+            if (imageStorageService.deleteIfStoredBefore(hash, cutoff)) {
+                deleted++;
+            }
+        }
+        logger.info("Image sweep deleted {} unreferenced images", deleted);
+    }
+
+    private boolean isVariantOfStoredImage(String hash) {
+        try {
+            return imageStorageService.findVariantSource(hash).isPresent();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void keepReferenced(Set<String> candidates, LongSupplier maxId,
+            BiFunction<Long, Long, List<String>> urlsBetween) {
+        long max = maxId.getAsLong();
+        for (long from = 1; from <= max && !candidates.isEmpty(); from += BATCH_SIZE) {
+            for (String url : urlsBetween.apply(from, from + BATCH_SIZE - 1)) {
+                candidates.remove(StoredImage.hashOf(url));
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.abinav.webapplication.scheduler;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.serviceImpl.LikeWriteBehind;
+
+/**
+ * Writes likes accepted by the write-behind pipeline to the database at
+ * least every flush interval. A full batch is flushed earlier by the
+ * request that filled it.
+ */
+@Component
+public class LikeWriteBehindFlushJob {
+
+    @Autowired
+    private LikeWriteBehind likeWriteBehind;
+
+    @Scheduled(fixedDelayString = "${app.likes.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        if (likeWriteBehind.isEnabled()) {
+            likeWriteBehind.flush();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.abinav.webapplication.scheduler;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.serviceImpl.SocialGraphIndex;
+
+/**
+ * Rebuilds the in-memory social graph from the follows table, picking up
+ * follows written outside this instance.
+ */
+@Component
+public class SocialGraphRefreshJob {
+
+    @Autowired
+    private SocialGraphIndex socialGraphIndex;
+
+    @Value("${app.graph.enabled:true}")
+    private boolean enabled = true;
+
+    @Scheduled(initialDelayString = "${app.graph.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.graph.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (enabled) {
+            socialGraphIndex.rebuild();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.abinav.webapplication.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.serviceImpl.TimelineServiceImpl;
+
+/**
+ * Keeps materialized timelines bounded and the celebrity set current.
+ */
+@Component
+public class TimelineMaintenanceJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineMaintenanceJob.class);
+
+    @Autowired
+    private TimelineServiceImpl timelineService;
+
+    @Scheduled(initialDelayString = "${app.timeline.trim-initial-delay-ms:120000}",
+            fixedDelayString = "${app.timeline.trim-interval-ms:600000}")
+    public void trim() {
+        int removed = timelineService.trimTimelines();
+        if (removed > 0) {
+            logger.info("Trimmed {} timeline entries", removed);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.timeline.celebrity-refresh-ms:300000}",
+            fixedDelayString = "${app.timeline.celebrity-refresh-ms:300000}")
+    public void refreshCelebrities() {
+        timelineService.refreshCelebrities();
+    }
+}
@@ -0,0 +1,30 @@
+package com.abinav.webapplication.scheduler;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.serviceImpl.UserSearchIndex;
+
+/**
+ * Rebuilds the user search index from the users table, picking up users
+ * created or renamed outside this instance.
+ */
+@Component
+public class UserSearchRefreshJob {
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Value("${app.search.enabled:true}")
+    private boolean enabled = true;
+
+    @Scheduled(initialDelayString = "${app.search.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.search.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (enabled) {
+            userSearchIndex.rebuild();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.abinav.webapplication.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.abinav.webapplication.dto.StoredImage;
+
+/**
+ * Content-addressed image storage. Images are keyed by the SHA-256 of their
+ * bytes, so storing the same image twice keeps a single copy.
+ */
+public interface ImageStorageService {
+
+    // Reads the stream once, hashing while writing; rejects non-images and
+    // payloads larger than maxBytes
+    StoredImage store(InputStream in, long maxBytes) throws IOException;
+
+    // Decodes a "data:image/...;base64," URI and stores the image
+    StoredImage storeDataUri(String dataUri) throws IOException;
+
+    Optional<StoredImage> find(String hash) throws IOException;
+
+    // Copies count bytes starting at position to the target; returns bytes written
+    long transferTo(String hash, long position, long count, WritableByteChannel target) throws IOException;
+
+    // The image as a file on local disk, for a server that can send it without
+    // copying through the JVM; empty when this store keeps no such file
+    Optional<Path> localFile(String hash) throws IOException;
+
+    InputStream open(String hash) throws IOException;
+
+    // Records that variantHash is the rendition "name" (e.g. "avatar-96") of the image hash
+    void putVariant(String hash, String name, String variantHash) throws IOException;
+
+    Optional<String> findVariant(String hash, String name) throws IOException;
+
+    // The image that hash is a rendition of, while that image is still stored
+    Optional<String> findVariantSource(String hash) throws IOException;
+
+    // Every image last stored (or stored again) before the cutoff
+    void forEachStoredBefore(Instant cutoff, Consumer<String> action) throws IOException;
+
+    // Removes the image and its variant links unless it was stored again since
+    // the cutoff; the variants themselves are swept later. Returns whether it did
+    boolean deleteIfStoredBefore(String hash, Instant cutoff) throws IOException;
+}
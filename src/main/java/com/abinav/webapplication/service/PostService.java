@@ -1,8 +1,8 @@
 package com.abinav.webapplication.service;
 
-import java.util.List;
 import com.abinav.webapplication.model.Post;
 import com.abinav.webapplication.dto.PostDTO;
+import com.abinav.webapplication.dto.PostPageDTO;
 
 public interface PostService {
     Post createPost(Post post);
@@ -14,9 +14,12 @@ public interface PostService {
     Post getPostById(Long postId);
 
     // Return DTO for single post (sanitized)
-    PostDTO getPostDTOById(Long postId, String currentUserEmail);
+    PostDTO getPostDTOById(Long postId, Long currentUserId);
 
-    List<PostDTO> getUserPosts(String email);
+    // Keyset-paginated lists; cursor is null for the first page
+    PostPageDTO getUserPosts(String email, String cursor, int size);
 
-    List<PostDTO> getAllPosts(String currentUserEmail);
+    PostPageDTO getFeed(String cursor, int size, Long currentUserId);
+
+    long getPostCount(Long userId);
 }
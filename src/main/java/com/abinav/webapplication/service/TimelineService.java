@@ -0,0 +1,16 @@
+package com.abinav.webapplication.service;
+
+import com.abinav.webapplication.dto.PostPageDTO;
+
+public interface TimelineService {
+
+    // Home timeline: posts by the user and everyone they follow, newest first
+    PostPageDTO getTimeline(Long userId, String cursor, int size);
+
+    // Write side, normally driven by events after commit
+    void fanOut(Long postId, Long authorId);
+
+    void onFollow(Long followerId, Long followingId);
+
+    void onUnfollow(Long followerId, Long followingId);
+}
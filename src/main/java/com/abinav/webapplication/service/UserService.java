@@ -2,6 +2,7 @@ package com.abinav.webapplication.service;
 
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.abinav.webapplication.dto.UserDTO;
 import com.abinav.webapplication.model.Users;
 
 public interface UserService {
@@ -18,6 +19,6 @@ public interface UserService {
 
 	Users updateUser(Users user);
 
-	java.util.List<Users> searchUsers(String query);
+	java.util.List<UserDTO> searchUsers(String query, int limit);
 
 }
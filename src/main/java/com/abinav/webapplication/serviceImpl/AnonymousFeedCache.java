@@ -0,0 +1,108 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.dto.PostPageDTO;
+import com.abinav.webapplication.service.PostService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Shared feed pages for anonymous viewers. Without a viewer every field of
+ * a page is the same for everyone, so one copy per (cursor, size) serves
+ * all of them.
+ *
+ * A page older than app.feed.anonymous-cache.ttl-ms is still served, while
+ * a single background reload on feedRefreshExecutor replaces it
+ * (stale-while-revalidate). Only a
+ * page nobody asked for within app.feed.anonymous-cache.max-stale-ms is
+ * loaded on the request thread, and concurrent requests for it wait on
+ * that one load. Anonymous traffic therefore costs at most one feed query
+ * per page per TTL window, however many requests arrive.
+ *
+ * Each page keeps the feed ETag taken before it was read, so a client is
+ * never handed a newer ETag than the body it got.
+ */
+@Component
+public class AnonymousFeedCache {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private VersionStamps versionStamps;
+
+    @Autowired
+    @Qualifier("feedRefreshExecutor")
+    private Executor feedRefreshExecutor;
+
+    @Value("${app.feed.anonymous-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.feed.anonymous-cache.ttl-ms:2000}")
+    private long ttlMillis = 2000;
+
+    @Value("${app.feed.anonymous-cache.max-stale-ms:30000}")
+    private long maxStaleMillis = 30_000;
+
+    // Cursors come from clients; the bound keeps made-up ones from growing the cache
+    @Value("${app.feed.anonymous-cache.max-entries:1000}")
+    private long maxEntries = 1000;
+
+    public record Page(String etag, PostPageDTO page) {
+    }
+
+    private record Key(String cursor, int size) {
+    }
+
+    private LoadingCache<Key, Page> pages;
+
+    @PostConstruct
+    public void init() {
+        build(feedRefreshExecutor, Ticker.systemTicker());
+    }
+
+    // Tests pass their own executor and clock to step through a reload
+    void build(Executor refreshExecutor, Ticker ticker) {
+        pages = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                .refreshAfterWrite(Duration.ofMillis(ttlMillis))
+                .expireAfterWrite(Duration.ofMillis(Math.max(ttlMillis, maxStaleMillis)))
+                .recordStats()
+                .build(this::load);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Page get(String cursor, int size) {
+        String normalized = cursor == null || cursor.isBlank() ? null : cursor;
+        return pages.get(new Key(normalized, PostServiceImpl.pageSize(size)));
+    }
+
+    public void invalidateAll() {
+        pages.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return pages.stats();
+    }
+
+    private Page load(Key key) {
+        String etag = versionStamps.feedETag(null);
+        return new Page(etag, postService.getFeed(key.cursor(), key.size(), null));
+    }
+}
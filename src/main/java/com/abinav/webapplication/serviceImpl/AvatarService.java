@@ -0,0 +1,228 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.abinav.webapplication.dto.StoredImage;
+import com.abinav.webapplication.service.ImageStorageService;
+
+/**
+ * Turns profile photos into small square avatars.
+ *
+ * The upload is streamed into the image store on the request thread, so
+ * the user row only ever holds its short /api/images/{hash} URL. Decoding
+ * and resizing happen once, on avatarExecutor: the photo is read at the
+ * coarsest subsampling that still covers the largest variant, center
+ * cropped, and written as a JPEG per size in StoredImage.AVATAR_SIZES.
+ * Each variant is an ordinary content-addressed image; a variant link
+ * ("avatar-96") from the photo's hash finds it.
+ *
+ * Variant URLs are derived from the photo URL, so they are known before
+ * the variants exist. Until then ImageController serves the photo itself
+ * and asks for the variants again, which also covers dropped tasks and
+ * photos stored before this existed. Formats ImageIO cannot read (WebP)
+ * keep being served as uploaded.
+ */
+@Service
+public class AvatarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvatarService.class);
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    @Qualifier("avatarExecutor")
+    private Executor avatarExecutor;
+
+    // Refuses to decode larger images (decompression bombs)
+    @Value("${app.avatars.max-pixels:50000000}")
+    private long maxPixels = 50_000_000;
+
+    @Value("${app.avatars.jpeg-quality:0.85}")
+    private float jpegQuality = 0.85f;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns the URL to keep on the user for a submitted photo: data URIs
+     * are stored (and their variants scheduled), other URLs are kept as they
+     * are.
+     */
+    public String accept(String imageUrl) {
+        String url = imageUrl;
+        if (imageUrl.startsWith("data:")) {
+            try {
+                url = imageStorageService.storeDataUri(imageUrl).getUrl();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not store profile photo", e);
+            }
+        }
+        String hash = StoredImage.hashOf(url);
+        if (hash != null) {
+            schedule(hash);
+        }
+        return url;
+    }
+
+    public Optional<String> findVariant(String hash, int size) throws IOException {
+        return imageStorageService.findVariant(hash, variantName(size));
+    }
+
+    // Queues variant generation unless it is already queued; a full queue drops it for now
+    public void schedule(String hash) {
+        if (!inFlight.add(hash)) {
+            return;
+        }
+        try {
+            avatarExecutor.execute(() -> {
+                try {
+                    generate(hash);
+                } catch (Exception e) {
+                    logger.warn("Could not make avatar variants of image {}: {}", hash, e.getMessage());
+                } finally {
+                    inFlight.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash);
+            logger.debug("Avatar queue full; variants of image {} are made on a later request", hash);
+        }
+    }
+
+    /**
+     * Makes the missing variants of a stored image. Returns false if the
+     * image cannot be decoded here (unknown format, too large).
+     */
+    public boolean generate(String hash) throws IOException {
+        boolean missing = false;
+        for (int size : StoredImage.AVATAR_SIZES) {
+            missing |= findVariant(hash, size).isEmpty();
+        }
+        if (!missing) {
+            return true;
+        }
+
+        int largest = StoredImage.AVATAR_SIZES.get(StoredImage.AVATAR_SIZES.size() - 1);
+        BufferedImage square = decodeSquare(hash, largest);
+        if (square == null) {
+            return false;
+        }
+        for (int size : StoredImage.AVATAR_SIZES) {
+            byte[] jpeg = encodeJpeg(resize(square, size));
+            StoredImage variant = imageStorageService.store(new ByteArrayInputStream(jpeg), jpeg.length);
+            imageStorageService.putVariant(hash, variantName(size), variant.getHash());
+        }
+        return true;
+    }
+
+    private static String variantName(int size) {
+        return "avatar-" + size;
+    }
+
+    /* ===== Imaging ===== */
+
+    // Center square of the image, decoded no finer than twice the target edge
+    private BufferedImage decodeSquare(String hash, int edge) throws IOException {
+        try (InputStream in = imageStorageService.open(hash);
+                ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                logger.debug("No decoder for image {}; it is served as uploaded", hash);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    logger.warn("Image {} is {}x{}; not decoding it for avatars", hash, width, height);
+                    return null;
+                }
+                // Subsampling skips pixels while decoding, so a 4000 px photo never exists at full size
+                int side = Math.min(width, height);
+                int step = Math.max(1, side / (edge * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves until within 2x, then one bilinear step; a single big step would alias
+    private static BufferedImage resize(BufferedImage source, int size) {
+        BufferedImage current = source;
+        int edge = Math.min(source.getWidth(), source.getHeight());
+        while (edge / 2 >= size) {
+            edge /= 2;
+            current = draw(current, edge);
+        }
+        return draw(current, size);
+    }
+
+    // Always RGB on white: JPEG has no alpha, and transparent PNG corners should not turn black
+    private static BufferedImage draw(BufferedImage source, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, size, size);
+            g.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DISABLED);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
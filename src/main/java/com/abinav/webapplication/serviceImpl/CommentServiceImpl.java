@@ -1,16 +1,17 @@
 package com.abinav.webapplication.serviceImpl;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.abinav.webapplication.event.PostCountersChangedEvent;
 import com.abinav.webapplication.model.Comment;
 import com.abinav.webapplication.model.CommentDTO;
 import com.abinav.webapplication.model.Post;
 import com.abinav.webapplication.model.Users;
 import com.abinav.webapplication.repository.CommentRepository;
 import com.abinav.webapplication.repository.PostRepository;
-import com.abinav.webapplication.repository.UserRepository;
 import com.abinav.webapplication.service.CommentService;
 
 @Service
@@ -23,22 +24,32 @@ public class CommentServiceImpl implements CommentService {
     private PostRepository postRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserIdentityCache userIdentityCache;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(rollbackFor = Exception.class)
     @Override
     public Comment createComment(Long postId, String userEmail, String content) throws Exception {
-        Users user = userRepository.findByEmail(userEmail)
+        Users user = userIdentityCache.findReferenceByEmail(userEmail)
             .orElseThrow(() -> new Exception("User not found"));
         
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
+        // Existence check only; the post row (and its image) is not loaded
+        if (!postRepository.existsById(postId)) {
+            throw new Exception("Post not found");
+        }
+        Post post = postRepository.getReferenceById(postId);
         
         Comment comment = new Comment();
         comment.setUser(user);
         comment.setPost(post);
         comment.setContent(content);
         
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        postRepository.adjustCommentCount(postId, 1);
+        eventPublisher.publishEvent(new PostCountersChangedEvent(postId));
+        return saved;
     }
 
     @Override
@@ -50,53 +61,50 @@ public class CommentServiceImpl implements CommentService {
         return commentRepository.save(comment);
     }
 
+    @Transactional(rollbackFor = Exception.class)
     @Override
     public void deleteComment(Long commentId) throws Exception {
         Comment comment = commentRepository.findById(commentId)
             .orElseThrow(() -> new Exception("Comment not found"));
         commentRepository.delete(comment);
+        postRepository.adjustCommentCount(comment.getPost().getId(), -1);
+        eventPublisher.publishEvent(new PostCountersChangedEvent(comment.getPost().getId()));
     }
 
     @Override
     public List<CommentDTO> getPostComments(Long postId) throws Exception {
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
-        
-        List<Comment> comments = commentRepository.findByPostOrderByCreatedAtDesc(post);
-        return comments.stream().map(comment -> {
-            CommentDTO dto = new CommentDTO();
-            dto.setId(comment.getId());
-            dto.setUsername(comment.getUser().getUsername());
-            dto.setUserEmail(comment.getUser().getEmail());
-            dto.setContent(comment.getContent());
-            dto.setCreatedAt(comment.getCreatedAt());
-            return dto;
-        }).collect(Collectors.toList());
+        return getCommentsList(postId);
     }
 
     @Override
     public long getCommentCount(Long postId) throws Exception {
-        Post post = postRepository.findById(postId)
+        return postRepository.findCommentCountById(postId)
             .orElseThrow(() -> new Exception("Post not found"));
-        return commentRepository.countByPost(post);
     }
 
     // New methods for controller (returns Comment objects, not CommentDTO)
+    @Transactional(rollbackFor = Exception.class)
     public Comment addComment(Long postId, Long userId, String text) throws Exception {
-        Users user = userRepository.findById(userId)
+        Users user = userIdentityCache.findReference(userId)
             .orElseThrow(() -> new Exception("User not found"));
         
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
+        if (!postRepository.existsById(postId)) {
+            throw new Exception("Post not found");
+        }
+        Post post = postRepository.getReferenceById(postId);
         
         Comment comment = new Comment();
         comment.setUser(user);
         comment.setPost(post);
         comment.setContent(text);
         
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        postRepository.adjustCommentCount(postId, 1);
+        eventPublisher.publishEvent(new PostCountersChangedEvent(postId));
+        return saved;
     }
 
+    @Transactional(rollbackFor = Exception.class)
     public void deleteComment(Long commentId, Long userId) throws Exception {
         Comment comment = commentRepository.findById(commentId)
             .orElseThrow(() -> new Exception("Comment not found"));
@@ -106,13 +114,15 @@ public class CommentServiceImpl implements CommentService {
         }
         
         commentRepository.delete(comment);
+        postRepository.adjustCommentCount(comment.getPost().getId(), -1);
+        eventPublisher.publishEvent(new PostCountersChangedEvent(comment.getPost().getId()));
     }
 
-    public List<Comment> getCommentsList(Long postId) throws Exception {
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
-        
-        return commentRepository.findByPostOrderByCreatedAtDesc(post);
+    public List<CommentDTO> getCommentsList(Long postId) throws Exception {
+        if (!postRepository.existsById(postId)) {
+            throw new Exception("Post not found");
+        }
+        return commentRepository.findDTOsByPostId(postId);
     }
 
     public Comment updateComment(Long commentId, Long userId, String text) throws Exception {
@@ -0,0 +1,439 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.abinav.webapplication.dto.PostCounters;
+import com.abinav.webapplication.event.FollowChangedEvent;
+import com.abinav.webapplication.event.PostCountersChangedEvent;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.repository.UserRepository;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Pushes like/comment counts of the posts a client has on screen, and the
+ * client's own follower/following counts, over Server-Sent Events.
+ *
+ * Like, comment and follow writes publish events; after commit, a changed
+ * post or user is only marked dirty here, and only if some stream watches
+ * it. Every flush window (app.stream.flush-interval-ms, 250 ms) the dirty
+ * set is drained, the current counters of all dirty posts are read with one
+ * IN-list query, and each stream gets at most one "counters" event with the
+ * entries it watches. A viral post therefore costs each viewer at most one
+ * message per window, however many likes arrive.
+ *
+ * Events carry totals, not deltas: a client that misses a window or
+ * reconnects is corrected by the next message, and its own optimistic
+ * updates are simply overwritten with the committed value.
+ *
+ * Writes happen on counterStreamExecutor, never on the scheduler thread, so
+ * one stalled client cannot hold up the window for everyone else. A stream
+ * has at most one send in flight; updates that arrive meanwhile are merged
+ * into the next one. A stream whose send has not returned within
+ * app.stream.send-timeout-ms is dropped, and its client reconnects. Each
+ * user keeps at most app.stream.max-per-user streams; opening another
+ * closes their oldest.
+ */
+@Service
+public class CounterStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterStreamService.class);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SocialGraphIndex socialGraphIndex;
+
+    @Autowired
+    private LikeWriteBehind likeWriteBehind;
+
+    @Autowired
+    @Qualifier("counterStreamExecutor")
+    private Executor counterStreamExecutor;
+
+    @Value("${app.stream.max-connections:10000}")
+    private int maxConnections = 10_000;
+
+    @Value("${app.stream.max-per-user:4}")
+    private int maxPerUser = 4;
+
+    @Value("${app.stream.send-timeout-ms:5000}")
+    private long sendTimeoutMillis = 5000;
+
+    @Value("${app.stream.max-posts-per-stream:200}")
+    private int maxPostsPerStream = 200;
+
+    @Value("${app.stream.timeout-ms:1800000}")
+    private long timeoutMillis = 1_800_000;
+
+    @Value("${app.stream.heartbeat-ms:15000}")
+    private long heartbeatMillis = 15_000;
+
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Stream>> postWatchers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Stream>> userWatchers = new ConcurrentHashMap<>();
+
+    private final Set<Long> dirtyPosts = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    private volatile long lastHeartbeat = System.currentTimeMillis();
+
+    private static final class Stream {
+        final String id;
+        final Long userId;
+        final SseEmitter emitter;
+        final long openedAt = System.currentTimeMillis();
+        // Replaced wholesale on resubscribe; guarded by the service monitor
+        Set<Long> postIds = Set.of();
+
+        // Outgoing state, guarded by the stream itself. sendingSince is 0 when
+        // no send task is running for this stream.
+        Update pending;
+        boolean heartbeat;
+        long sendingSince;
+
+        Stream(String id, Long userId, SseEmitter emitter) {
+            this.id = id;
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+
+    /* ===== Subscriptions ===== */
+
+    /**
+     * Opens a stream for the user watching the given posts, or returns null
+     * when the connection limit is reached. The first event ("ready") carries
+     * the stream id used to change the watched posts later. A user already at
+     * app.stream.max-per-user loses their oldest stream.
+     */
+    public SseEmitter open(Long userId, Collection<Long> postIds) {
+        if (streams.size() >= maxConnections) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Stream stream = new Stream(UUID.randomUUID().toString(), userId, emitter);
+
+        emitter.onCompletion(() -> close(stream));
+        emitter.onTimeout(() -> close(stream));
+        emitter.onError(e -> close(stream));
+
+        List<Stream> evicted = new ArrayList<>();
+        synchronized (this) {
+            Set<Stream> own = userWatchers.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet());
+            while (own.size() >= maxPerUser) {
+                Stream oldest = own.stream()
+                        .min((a, b) -> Long.compare(a.openedAt, b.openedAt))
+                        .orElseThrow();
+                close(oldest);
+                evicted.add(oldest);
+            }
+            streams.put(stream.id, stream);
+            userWatchers.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(stream);
+            watch(stream, postIds);
+        }
+        // Completed by their send task, which may be mid-write
+        evicted.forEach(this::kick);
+
+        try {
+            emitter.send(SseEmitter.event().name("ready").data(Map.of("streamId", stream.id)));
+        } catch (IOException e) {
+            close(stream);
+        }
+        return emitter;
+    }
+
+    /**
+     * Replaces the posts a stream watches (the feed grew or was reloaded).
+     * Returns false if there is no such stream for this user.
+     */
+    public boolean watch(String streamId, Long userId, Collection<Long> postIds) {
+        Stream stream = streams.get(streamId);
+        if (stream == null || !stream.userId.equals(userId)) {
+            return false;
+        }
+        watch(stream, postIds);
+        return true;
+    }
+
+    public int getOpenStreams() {
+        return streams.size();
+    }
+
+    private synchronized void watch(Stream stream, Collection<Long> postIds) {
+        Set<Long> next = new LinkedHashSet<>();
+        for (Long postId : postIds) {
+            if (postId != null && next.size() < maxPostsPerStream) {
+                next.add(postId);
+            }
+        }
+        for (Long postId : stream.postIds) {
+            if (!next.contains(postId)) {
+                unwatchPost(postId, stream);
+            }
+        }
+        if (!streams.containsKey(stream.id)) {
+            // Closed while we were replacing its posts
+            stream.postIds = Set.of();
+            return;
+        }
+        for (Long postId : next) {
+            postWatchers.computeIfAbsent(postId, k -> ConcurrentHashMap.newKeySet()).add(stream);
+        }
+        stream.postIds = next;
+    }
+
+    private synchronized void close(Stream stream) {
+        if (streams.remove(stream.id) == null) {
+            return;
+        }
+        for (Long postId : stream.postIds) {
+            unwatchPost(postId, stream);
+        }
+        stream.postIds = Set.of();
+        userWatchers.computeIfPresent(stream.userId, (k, watchers) -> {
+            watchers.remove(stream);
+            return watchers.isEmpty() ? null : watchers;
+        });
+    }
+
+    private void unwatchPost(Long postId, Stream stream) {
+        postWatchers.computeIfPresent(postId, (k, watchers) -> {
+            watchers.remove(stream);
+            return watchers.isEmpty() ? null : watchers;
+        });
+    }
+
+    /* ===== Changes ===== */
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostCountersChanged(PostCountersChangedEvent event) {
+        if (postWatchers.containsKey(event.getPostId())) {
+            dirtyPosts.add(event.getPostId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (userWatchers.containsKey(event.getFollowerId())) {
+            dirtyUsers.add(event.getFollowerId());
+        }
+        if (userWatchers.containsKey(event.getFollowingId())) {
+            dirtyUsers.add(event.getFollowingId());
+        }
+    }
+
+    /**
+     * Queues one coalesced "counters" event for every stream watching
+     * something that changed since the last flush, and a heartbeat comment
+     * for idle streams so dead connections are noticed. The sends themselves
+     * run on counterStreamExecutor. Called by CounterStreamFlushJob.
+     */
+    public void flush() {
+        Map<Stream, Update> updates = new HashMap<>();
+
+        List<Long> posts = drain(dirtyPosts);
+        if (!posts.isEmpty()) {
+            for (PostCounters counters : postRepository.findCountersByIdIn(posts)) {
+                // Likes acknowledged but not yet written are part of the total
+                counters.setLikeCount(counters.getLikeCount() + likeWriteBehind.pendingDelta(counters.getId()));
+                for (Stream stream : postWatchers.getOrDefault(counters.getId(), Set.of())) {
+                    updates.computeIfAbsent(stream, k -> new Update()).addPost(counters);
+                }
+            }
+        }
+
+        for (Long userId : drain(dirtyUsers)) {
+            Set<Stream> watchers = userWatchers.getOrDefault(userId, Set.of());
+            if (watchers.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("id", userId);
+            user.put("followerCount", followerCount(userId));
+            user.put("followingCount", followingCount(userId));
+            for (Stream stream : watchers) {
+                updates.computeIfAbsent(stream, k -> new Update()).setUser(user);
+            }
+        }
+
+        for (Map.Entry<Stream, Update> entry : updates.entrySet()) {
+            enqueue(entry.getKey(), entry.getValue());
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastHeartbeat >= heartbeatMillis) {
+            lastHeartbeat = now;
+            for (Stream stream : streams.values()) {
+                if (!updates.containsKey(stream)) {
+                    enqueue(stream, null);
+                }
+            }
+        }
+    }
+
+    // Body of one "counters" event; later totals for a post replace earlier ones
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class Update {
+        private final Map<Long, PostCounters> posts = new LinkedHashMap<>();
+        private Map<String, Object> user;
+
+        public Collection<PostCounters> getPosts() {
+            return posts.values();
+        }
+
+        public void addPost(PostCounters counters) {
+            posts.put(counters.getId(), counters);
+        }
+
+        Update merge(Update later) {
+            posts.putAll(later.posts);
+            if (later.user != null) {
+                user = later.user;
+            }
+            return this;
+        }
+
+        public Map<String, Object> getUser() {
+            return user;
+        }
+
+        public void setUser(Map<String, Object> user) {
+            this.user = user;
+        }
+    }
+
+    /* ===== Sending ===== */
+
+    // Hands an update (or, if null, a heartbeat) to the stream's send task
+    private void enqueue(Stream stream, Update update) {
+        boolean slow;
+        synchronized (stream) {
+            if (update != null) {
+                stream.pending = stream.pending == null ? update : stream.pending.merge(update);
+            } else {
+                stream.heartbeat = true;
+            }
+            slow = stream.sendingSince != 0
+                    && System.currentTimeMillis() - stream.sendingSince > sendTimeoutMillis;
+        }
+        if (slow) {
+            // The stuck write completes the emitter when it finally returns
+            logger.debug("Dropping counter stream {}: a send has not returned in {} ms", stream.id, sendTimeoutMillis);
+            close(stream);
+            return;
+        }
+        kick(stream);
+    }
+
+    // Starts the stream's send task unless one is running
+    private void kick(Stream stream) {
+        synchronized (stream) {
+            if (stream.sendingSince != 0) {
+                return;
+            }
+            stream.sendingSince = System.currentTimeMillis();
+        }
+        try {
+            counterStreamExecutor.execute(() -> drainSends(stream));
+        } catch (RejectedExecutionException e) {
+            // Every sender is busy; shed this client rather than the window
+            logger.debug("Counter stream senders saturated; closing stream {}", stream.id);
+            close(stream);
+            synchronized (stream) {
+                stream.sendingSince = 0;
+            }
+            stream.emitter.complete();
+        }
+    }
+
+    // Sends whatever is pending until nothing is; completes streams closed meanwhile
+    private void drainSends(Stream stream) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            synchronized (stream) {
+                if (!streams.containsKey(stream.id)) {
+                    stream.sendingSince = 0;
+                    break;
+                }
+                if (stream.pending != null) {
+                    event = SseEmitter.event().name("counters").data(stream.pending);
+                } else if (stream.heartbeat) {
+                    event = SseEmitter.event().comment("keep-alive");
+                } else {
+                    stream.sendingSince = 0;
+                    return;
+                }
+                stream.pending = null;
+                stream.heartbeat = false;
+                stream.sendingSince = System.currentTimeMillis();
+            }
+            try {
+                stream.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks may not fire for a broken pipe
+                logger.debug("Closing counter stream {}: {}", stream.id, e.getMessage());
+                close(stream);
+                synchronized (stream) {
+                    stream.sendingSince = 0;
+                }
+                stream.emitter.completeWithError(e);
+                return;
+            }
+        }
+        try {
+            stream.emitter.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        }
+    }
+
+    // Takes every id present now; ids added concurrently are picked up by the next flush
+    private static List<Long> drain(Set<Long> dirty) {
+        List<Long> ids = new ArrayList<>();
+        Iterator<Long> it = dirty.iterator();
+        while (it.hasNext()) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+
+    private long followerCount(Long userId) {
+        return socialGraphIndex.isReady()
+                ? socialGraphIndex.followerCount(userId)
+                : userRepository.findFollowerCountById(userId).orElse(0L);
+    }
+
+    private long followingCount(Long userId) {
+        return socialGraphIndex.isReady()
+                ? socialGraphIndex.followingCount(userId)
+                : userRepository.findFollowingCountById(userId).orElse(0L);
+    }
+}
@@ -0,0 +1,115 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.dto.PostDTO;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.FollowRepository;
+import com.abinav.webapplication.repository.LikeRepository;
+
+/**
+ * Turns a page of posts into PostDTOs.
+ *
+ * Like and comment counts come from the denormalized counters on the post
+ * row. Liked-by-viewer is resolved for the whole page with one IN-list
+ * query, and following-author from the in-memory social graph (one more
+ * IN-list query until it is built), so the number of statements does not
+ * depend on the page size. Likes still pending in the write-behind
+ * pipeline are overlaid on top.
+ */
+@Component
+public class FeedHydrator {
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private SocialGraphIndex socialGraphIndex;
+
+    @Autowired
+    private LikeWriteBehind likeWriteBehind;
+
+    public List<PostDTO> hydrate(List<Post> posts, Users viewer) {
+        if (posts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> likedPostIds = Collections.emptySet();
+        if (viewer != null) {
+            Set<Long> postIds = new LinkedHashSet<>();
+            for (Post post : posts) {
+                postIds.add(post.getId());
+            }
+            likedPostIds = new HashSet<>(likeRepository.findLikedPostIds(viewer, postIds));
+        }
+        return hydrate(posts, viewer, likedPostIds);
+    }
+
+    // For callers that looked up the viewer's likes themselves (see PostServiceImpl.getPostDTOById)
+    public List<PostDTO> hydrate(List<Post> posts, Users viewer, Set<Long> likedPostIds) {
+        if (posts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> authorIds = new HashSet<>();
+        for (Post post : posts) {
+            authorIds.add(post.getUser().getId());
+        }
+
+        // Viewer-specific state; anonymous viewers never like or follow anything
+        Set<Long> followedAuthorIds = Collections.emptySet();
+        if (viewer != null) {
+            followedAuthorIds = socialGraphIndex.isReady()
+                    ? socialGraphIndex.followedAmong(viewer.getId(), authorIds)
+                    : new HashSet<>(followRepository.findFollowedUserIds(viewer, authorIds));
+        }
+
+        List<PostDTO> dtos = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            Users author = post.getUser();
+
+            PostDTO dto = new PostDTO();
+            dto.setId(post.getId());
+            dto.setAuthorId(author.getId());
+            dto.setUsername(author.getUsername());
+            dto.setUserEmail(author.getEmail());
+            dto.setCaption(post.getCaption());
+            dto.setImageUrl(post.getImageUrl());
+            dto.setCreatedAt(post.getCreatedAt());
+            dto.setLikeCount(post.getLikeCount());
+            dto.setCommentCount(post.getCommentCount());
+            dto.setLikedByCurrentUser(likedPostIds.contains(post.getId()));
+            dto.setFollowingAuthor(followedAuthorIds.contains(author.getId()));
+            dtos.add(dto);
+        }
+        if (likeWriteBehind.hasPending()) {
+            overlayPendingLikes(dtos, viewer);
+        }
+        return dtos;
+    }
+
+    // Likes acknowledged by the write-behind pipeline but not flushed yet
+    private void overlayPendingLikes(List<PostDTO> dtos, Users viewer) {
+        for (PostDTO dto : dtos) {
+            dto.setLikeCount(Math.max(0, dto.getLikeCount() + likeWriteBehind.pendingDelta(dto.getId())));
+            if (viewer != null) {
+                Boolean liked = likeWriteBehind.pendingLiked(viewer.getId(), dto.getId());
+                if (liked != null) {
+                    dto.setLikedByCurrentUser(liked);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abinav.webapplication.dto.PostDTO;
+import com.abinav.webapplication.dto.PostPageDTO;
+import com.abinav.webapplication.service.PostService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Writes long runs of the feed straight to a response stream, for bulk
+ * clients that would otherwise page through it.
+ *
+ * Posts are read in keyset chunks (app.feed.stream.chunk-size) with the
+ * same queries and hydration as a feed page; each chunk is serialized
+ * through one JsonGenerator and flushed before the next is read. Memory
+ * stays at one chunk however many posts are written.
+ *
+ * Each chunk is read in its own short read-only transaction, with an
+ * EntityManager that is closed when it ends. The request's open-in-view
+ * EntityManager is set aside meanwhile: through it, every chunk would pile
+ * up in one persistence context and its connection would be held until the
+ * slowest client had read the last byte.
+ *
+ * Two formats:
+ *   JSON    {"posts":[...],"nextCursor":...}, the shape of a feed page
+ *   NDJSON  one post per line; if the limit cut the feed short, a final
+ *           {"nextCursor":...} line says where to resume
+ */
+@Component
+public class FeedStreamer {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.feed.stream.chunk-size:100}")
+    private int chunkSize = 100;
+
+    @Value("${app.feed.stream.max-posts:10000}")
+    private int maxPosts = 10_000;
+
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setReadOnly(true);
+    }
+
+    public int limit(Integer requested) {
+        return requested == null || requested < 1 ? maxPosts : Math.min(requested, maxPosts);
+    }
+
+    public void writeJson(OutputStream out, String cursor, int limit, Long viewerId) throws IOException {
+        ObjectWriter writer = postWriter();
+        try (JsonGenerator json = generator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("posts");
+            String next = writeChunks(json, writer, cursor, limit, viewerId, false);
+            json.writeEndArray();
+            json.writeStringField("nextCursor", next);
+            json.writeEndObject();
+        }
+    }
+
+    public void writeNdjson(OutputStream out, String cursor, int limit, Long viewerId) throws IOException {
+        ObjectWriter writer = postWriter();
+        try (JsonGenerator json = generator(out)) {
+            String next = writeChunks(json, writer, cursor, limit, viewerId, true);
+            if (next != null) {
+                json.writeStartObject();
+                json.writeStringField("nextCursor", next);
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+        }
+    }
+
+    // Returns the cursor after the last post written, or null at the end of the feed
+    private String writeChunks(JsonGenerator json, ObjectWriter writer, String cursor, int limit,
+            Long viewerId, boolean lines) throws IOException {
+        // Put back afterwards, so open-in-view still closes its own EntityManager
+        Object requestEntityManager = TransactionSynchronizationManager.unbindResourceIfPossible(entityManagerFactory);
+        try {
+            return writeChunksInOwnTransactions(json, writer, cursor, limit, viewerId, lines);
+        } finally {
+            if (requestEntityManager != null) {
+                TransactionSynchronizationManager.bindResource(entityManagerFactory, requestEntityManager);
+            }
+        }
+    }
+
+    private String writeChunksInOwnTransactions(JsonGenerator json, ObjectWriter writer, String cursor, int limit,
+            Long viewerId, boolean lines) throws IOException {
+        int written = 0;
+        String next = cursor;
+        while (written < limit) {
+            String after = next;
+            int size = Math.min(chunkSize, limit - written);
+            PostPageDTO chunk = chunkTransaction.execute(status -> postService.getFeed(after, size, viewerId));
+            for (PostDTO post : chunk.getPosts()) {
+                writer.writeValue(json, post);
+                if (lines) {
+                    json.writeRaw('\n');
+                }
+            }
+            written += chunk.getPosts().size();
+            next = chunk.getNextCursor();
+            // Hand the chunk to the client before reading the next one
+            json.flush();
+            if (next == null) {
+                break;
+            }
+        }
+        return next;
+    }
+
+    // The servlet stream is closed by the container, not by us
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null);
+        return json;
+    }
+
+    // One flush per chunk, not per post
+    private ObjectWriter postWriter() {
+        return objectMapper.writerFor(PostDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+}
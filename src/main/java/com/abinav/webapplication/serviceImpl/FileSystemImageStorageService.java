@@ -0,0 +1,332 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.abinav.webapplication.dto.StoredImage;
+import com.abinav.webapplication.exception.ValidationException;
+import com.abinav.webapplication.service.ImageStorageService;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Filesystem-backed image store. Files live at {dir}/{first two hash chars}/{hash};
+ * uploads are written to {dir}/tmp first and moved into place once hashed.
+ * Variant links are small files under {dir}/variants holding the variant's hash,
+ * with a reverse link ({variant hash}.of) naming the image it was made from.
+ * A file's modification time is when it was last stored, which is what the
+ * sweep of unreferenced images goes by.
+ */
+@Service
+public class FileSystemImageStorageService implements ImageStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemImageStorageService.class);
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern VARIANT_NAME = Pattern.compile("[a-z0-9-]{1,32}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${app.images.dir:data/images}")
+    private String baseDir;
+
+    @Value("${app.images.max-bytes:10485760}")
+    private long defaultMaxBytes;
+
+    private Path root;
+    private Path tmp;
+    private Path variants;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(baseDir).toAbsolutePath();
+        tmp = root.resolve("tmp");
+        variants = root.resolve("variants");
+        Files.createDirectories(tmp);
+        logger.info("Image store at {}", root);
+    }
+
+    @Override
+    public StoredImage store(InputStream in, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        long size = 0;
+        byte[] header = new byte[12];
+        int headerLength = 0;
+
+        try {
+            try (ReadableByteChannel source = Channels.newChannel(in);
+                    FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                int read;
+                while ((read = source.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new ValidationException("Image exceeds the maximum size of " + maxBytes + " bytes");
+                    }
+                    buffer.flip();
+                    if (headerLength < header.length) {
+                        int n = Math.min(header.length - headerLength, buffer.remaining());
+                        buffer.get(buffer.position(), header, headerLength, n);
+                        headerLength += n;
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+
+            String contentType = detectContentType(header, headerLength);
+            if (contentType == null) {
+                throw new ValidationException("Unsupported image format");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path path = pathFor(hash);
+            if (!Files.exists(path)) {
+                Files.createDirectories(path.getParent());
+                try {
+                    Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Another upload of the same image won the race; same bytes, nothing to do
+                }
+            } else {
+                // Stored again: the uploader gets a full grace period before the sweep may take it
+                Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+            }
+            return new StoredImage(hash, size, contentType);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public StoredImage storeDataUri(String dataUri) throws IOException {
+        if (dataUri == null || !dataUri.startsWith("data:image/")) {
+            throw new ValidationException("Not an image data URI");
+        }
+        int comma = dataUri.indexOf(',');
+        if (comma < 0 || !dataUri.substring(0, comma).endsWith(";base64")) {
+            throw new ValidationException("Image data URI must be base64 encoded");
+        }
+
+        // Decode while streaming into the store instead of materializing the decoded bytes
+        byte[] ascii = dataUri.getBytes(StandardCharsets.US_ASCII);
+        try (InputStream decoded = Base64.getMimeDecoder()
+                .wrap(new ByteArrayInputStream(ascii, comma + 1, ascii.length - comma - 1))) {
+            return store(decoded, defaultMaxBytes);
+        }
+    }
+
+    @Override
+    public Optional<StoredImage> find(String hash) throws IOException {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathFor(hash);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        byte[] header = new byte[12];
+        int headerLength;
+        try (InputStream in = Files.newInputStream(path)) {
+            headerLength = in.readNBytes(header, 0, header.length);
+        }
+        return Optional.of(new StoredImage(hash, Files.size(path), detectContentType(header, headerLength)));
+    }
+
+    @Override
+    public long transferTo(String hash, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(pathFor(hash), StandardOpenOption.READ)) {
+            long written = 0;
+            // transferTo may move fewer bytes than asked for, so loop until done
+            while (written < count) {
+                long n = channel.transferTo(position + written, count - written, target);
+                if (n <= 0) {
+                    break;
+                }
+                written += n;
+            }
+            return written;
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String hash) throws IOException {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathFor(hash).toAbsolutePath();
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public InputStream open(String hash) throws IOException {
+        return Files.newInputStream(pathFor(hash));
+    }
+
+    @Override
+    public void putVariant(String hash, String name, String variantHash) throws IOException {
+        Path link = variantPathFor(hash, name);
+        if (link == null || !HASH.matcher(variantHash).matches()) {
+            throw new IllegalArgumentException("Invalid variant " + name + " of " + hash);
+        }
+        writeLink(link, variantHash);
+        writeLink(sourcePathFor(variantHash), hash);
+    }
+
+    // Readers see the old link or the new one, never a partial file
+    private void writeLink(Path link, String target) throws IOException {
+        Files.createDirectories(link.getParent());
+        Path temp = Files.createTempFile(tmp, "variant-", ".part");
+        try {
+            Files.writeString(temp, target, StandardCharsets.US_ASCII);
+            Files.move(temp, link, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<String> findVariant(String hash, String name) throws IOException {
+        Path link = variantPathFor(hash, name);
+        if (link == null || !Files.isRegularFile(link)) {
+            return Optional.empty();
+        }
+        String variantHash = Files.readString(link, StandardCharsets.US_ASCII).trim();
+        return HASH.matcher(variantHash).matches() && Files.isRegularFile(pathFor(variantHash))
+                ? Optional.of(variantHash)
+                : Optional.empty();
+    }
+
+    @Override
+    public Optional<String> findVariantSource(String hash) throws IOException {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path link = sourcePathFor(hash);
+        if (!Files.isRegularFile(link)) {
+            return Optional.empty();
+        }
+        String source = Files.readString(link, StandardCharsets.US_ASCII).trim();
+        return HASH.matcher(source).matches() && Files.isRegularFile(pathFor(source))
+                ? Optional.of(source)
+                : Optional.empty();
+    }
+
+    @Override
+    public void forEachStoredBefore(Instant cutoff, Consumer<String> action) throws IOException {
+        // Only the two-character shard directories hold images; tmp and variants are skipped
+        try (Stream<Path> shards = Files.list(root)) {
+            for (Path shard : (Iterable<Path>) shards::iterator) {
+                if (shard.getFileName().toString().length() != 2 || !Files.isDirectory(shard)) {
+                    continue;
+                }
+                try (Stream<Path> files = Files.list(shard)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        String hash = file.getFileName().toString();
+                        if (HASH.matcher(hash).matches()
+                                && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                            action.accept(hash);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean deleteIfStoredBefore(String hash, Instant cutoff) throws IOException {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return false;
+        }
+        Path path = pathFor(hash);
+        if (!Files.isRegularFile(path) || !Files.getLastModifiedTime(path).toInstant().isBefore(cutoff)) {
+            return false;
+        }
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(sourcePathFor(hash));
+        Path shard = variants.resolve(hash.substring(0, 2));
+        if (Files.isDirectory(shard)) {
+            try (Stream<Path> links = Files.list(shard)) {
+                for (Path link : (Iterable<Path>) links::iterator) {
+                    if (link.getFileName().toString().startsWith(hash + "-")) {
+                        Files.deleteIfExists(link);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private Path variantPathFor(String hash, String name) {
+        if (hash == null || !HASH.matcher(hash).matches() || name == null || !VARIANT_NAME.matcher(name).matches()) {
+            return null;
+        }
+        return variants.resolve(hash.substring(0, 2)).resolve(hash + "-" + name);
+    }
+
+    private Path sourcePathFor(String variantHash) {
+        return variants.resolve(variantHash.substring(0, 2)).resolve(variantHash + ".of");
+    }
+
+    private Path pathFor(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Magic-number sniffing; we only accept formats browsers render
+    static String detectContentType(byte[] h, int length) {
+        if (length >= 3 && (h[0] & 0xFF) == 0xFF && (h[1] & 0xFF) == 0xD8 && (h[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (length >= 8 && (h[0] & 0xFF) == 0x89 && h[1] == 'P' && h[2] == 'N' && h[3] == 'G') {
+            return "image/png";
+        }
+        if (length >= 4 && h[0] == 'G' && h[1] == 'I' && h[2] == 'F' && h[3] == '8') {
+            return "image/gif";
+        }
+        if (length >= 12 && h[0] == 'R' && h[1] == 'I' && h[2] == 'F' && h[3] == 'F'
+                && h[8] == 'W' && h[9] == 'E' && h[10] == 'B' && h[11] == 'P') {
+            return "image/webp";
+        }
+        return null;
+    }
+}
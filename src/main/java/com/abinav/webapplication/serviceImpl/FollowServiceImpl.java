@@ -1,98 +1,111 @@
 package com.abinav.webapplication.serviceImpl;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.abinav.webapplication.dto.FollowEdge;
+import com.abinav.webapplication.dto.FollowPageDTO;
+import com.abinav.webapplication.dto.UserDTO;
+import com.abinav.webapplication.event.FollowChangedEvent;
 import com.abinav.webapplication.model.Follow;
 import com.abinav.webapplication.model.Users;
 import com.abinav.webapplication.repository.FollowRepository;
 import com.abinav.webapplication.repository.UserRepository;
 import com.abinav.webapplication.service.FollowService;
+import com.abinav.webapplication.utility.FeedCursor;
 
 @Service
 public class FollowServiceImpl implements FollowService {
 
+        public static final int DEFAULT_PAGE_SIZE = 20;
+        public static final int MAX_PAGE_SIZE = 100;
+
         @Autowired
         private FollowRepository followRepository;
 
         @Autowired
         private UserRepository userRepository;
 
+        @Autowired
+        private UserIdentityCache userIdentityCache;
+
+        @Autowired
+        private SocialGraphIndex socialGraphIndex;
+
+        @Autowired
+        private ApplicationEventPublisher eventPublisher;
+
         /*
          * =========================================================
          * EMAIL-BASED METHODS
          * =========================================================
          */
 
+        @Transactional(rollbackFor = Exception.class)
         @Override
         public void followUser(String followerEmail, String followingEmail) throws Exception {
                 if (followerEmail.equals(followingEmail)) {
                         throw new Exception("Cannot follow yourself");
                 }
 
-                Users follower = userRepository.findByEmail(followerEmail)
+                Users follower = userIdentityCache.findReferenceByEmail(followerEmail)
                                 .orElseThrow(() -> new Exception("Follower user not found"));
 
-                Users following = userRepository.findByEmail(followingEmail)
+                Users following = userIdentityCache.findReferenceByEmail(followingEmail)
                                 .orElseThrow(() -> new Exception("User to follow not found"));
 
-                boolean alreadyFollowing = followRepository.existsByFollowerAndFollowing(follower, following);
-
-                if (alreadyFollowing) {
-                        return; // ✅ IDEMPOTENT
-                }
-
-                Follow follow = new Follow();
-                follow.setFollower(follower);
-                follow.setFollowing(following);
-                followRepository.save(follow);
+                followUser(follower.getId(), following.getId()); // IDEMPOTENT
         }
 
+        @Transactional(rollbackFor = Exception.class)
         @Override
         public void unfollowUser(String followerEmail, String followingEmail) throws Exception {
-                Users follower = userRepository.findByEmail(followerEmail)
+                Users follower = userIdentityCache.findReferenceByEmail(followerEmail)
                                 .orElseThrow(() -> new Exception("Follower user not found"));
 
-                Users following = userRepository.findByEmail(followingEmail)
+                Users following = userIdentityCache.findReferenceByEmail(followingEmail)
                                 .orElseThrow(() -> new Exception("User to unfollow not found"));
 
-                followRepository.findByFollowerAndFollowing(follower, following)
-                                .ifPresent(followRepository::delete); // IDEMPOTENT
+                unfollowUser(follower.getId(), following.getId()); // IDEMPOTENT
         }
 
         @Override
         public boolean isFollowing(String followerEmail, String followingEmail) throws Exception {
-                Users follower = userRepository.findByEmail(followerEmail)
+                Users follower = userIdentityCache.findReferenceByEmail(followerEmail)
                                 .orElseThrow(() -> new Exception("User not found"));
 
-                Users following = userRepository.findByEmail(followingEmail)
+                Users following = userIdentityCache.findReferenceByEmail(followingEmail)
                                 .orElseThrow(() -> new Exception("User not found"));
 
-                return followRepository.existsByFollowerAndFollowing(follower, following);
+                return isFollowing(follower.getId(), following.getId());
         }
 
         @Override
         public long getFollowerCount(String userEmail) throws Exception {
-                Users user = userRepository.findByEmail(userEmail)
+                Users user = userIdentityCache.findReferenceByEmail(userEmail)
                                 .orElseThrow(() -> new Exception("User not found"));
 
-                return followRepository.countByFollowing(user);
+                return getFollowersCount(user.getId());
         }
 
         @Override
         public long getFollowingCount(String userEmail) throws Exception {
-                Users user = userRepository.findByEmail(userEmail)
+                Users user = userIdentityCache.findReferenceByEmail(userEmail)
                                 .orElseThrow(() -> new Exception("User not found"));
 
-                return followRepository.countByFollower(user);
+                return getFollowingCount(user.getId());
         }
 
         @Override
         public List<Users> getFollowers(String userEmail) throws Exception {
-                Users user = userRepository.findByEmail(userEmail)
+                Users user = userIdentityCache.findReferenceByEmail(userEmail)
                                 .orElseThrow(() -> new Exception("User not found"));
 
                 return followRepository.findByFollowing(user)
@@ -103,7 +116,7 @@ public class FollowServiceImpl implements FollowService {
 
         @Override
         public List<Users> getFollowing(String userEmail) throws Exception {
-                Users user = userRepository.findByEmail(userEmail)
+                Users user = userIdentityCache.findReferenceByEmail(userEmail)
                                 .orElseThrow(() -> new Exception("User not found"));
 
                 return followRepository.findByFollower(user)
@@ -118,75 +131,126 @@ public class FollowServiceImpl implements FollowService {
          * =========================================================
          */
 
-        public Follow followUser(Long followerId, Long followingId) throws Exception {
+        /**
+         * Single-statement, idempotent follow backed by the unique
+         * (follower_id, following_id) constraint. Returns true if a follow was
+         * created, false if it already existed.
+         */
+        @Transactional(rollbackFor = Exception.class)
+        public boolean followUser(Long followerId, Long followingId) throws Exception {
                 if (followerId.equals(followingId)) {
                         throw new Exception("Cannot follow yourself");
                 }
 
-                Users follower = userRepository.findById(followerId)
+                userIdentityCache.findById(followerId)
                                 .orElseThrow(() -> new Exception("Follower user not found"));
 
-                Users following = userRepository.findById(followingId)
+                // Also guards the insert: INSERT IGNORE would swallow the foreign key error
+                userIdentityCache.findById(followingId)
                                 .orElseThrow(() -> new Exception("User to follow not found"));
 
-                boolean alreadyFollowing = followRepository.existsByFollowerAndFollowing(follower, following);
-
-                if (alreadyFollowing) {
-                        return null; //  IDEMPOTENT
+                boolean created = followRepository.insertIfAbsent(followerId, followingId) > 0;
+                if (created) {
+                        userRepository.adjustFollowCounts(followerId, followingId, 1);
+                        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followingId, true));
                 }
-
-                Follow follow = new Follow();
-                follow.setFollower(follower);
-                follow.setFollowing(following);
-                return followRepository.save(follow);
+                return created;
         }
 
-        public void unfollowUser(Long followerId, Long followingId) throws Exception {
-                Users follower = userRepository.findById(followerId)
-                                .orElseThrow(() -> new Exception("Follower user not found"));
-
-                Users following = userRepository.findById(followingId)
-                                .orElseThrow(() -> new Exception("User to unfollow not found"));
-
-                followRepository.findByFollowerAndFollowing(follower, following)
-                                .ifPresent(followRepository::delete); // IDEMPOTENT
+        // Returns true if a follow was removed
+        @Transactional(rollbackFor = Exception.class)
+        public boolean unfollowUser(Long followerId, Long followingId) throws Exception {
+                boolean removed = followRepository.deleteByFollowerIdAndFollowingId(followerId, followingId) > 0; // IDEMPOTENT
+                if (removed) {
+                        userRepository.adjustFollowCounts(followerId, followingId, -1);
+                        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followingId, false));
+                }
+                return removed;
         }
 
+        // Checks and counts come from the in-memory graph once it is built,
+        // otherwise from the database (counts from the counters on the user row)
         public boolean isFollowing(Long followerId, Long followingId) throws Exception {
-                Users follower = userRepository.findById(followerId)
-                                .orElseThrow(() -> new Exception("User not found"));
-
-                Users following = userRepository.findById(followingId)
-                                .orElseThrow(() -> new Exception("User not found"));
-
-                return followRepository.existsByFollowerAndFollowing(follower, following);
+                if (socialGraphIndex.isReady()) {
+                        return socialGraphIndex.isFollowing(followerId, followingId);
+                }
+                return followRepository.existsByFollowerIdAndFollowingId(followerId, followingId);
         }
 
         public long getFollowersCount(Long userId) throws Exception {
-                Users user = userRepository.findById(userId)
+                if (socialGraphIndex.isReady()) {
+                        userIdentityCache.findById(userId)
+                                        .orElseThrow(() -> new Exception("User not found"));
+                        return socialGraphIndex.followerCount(userId);
+                }
+                return userRepository.findFollowerCountById(userId)
                                 .orElseThrow(() -> new Exception("User not found"));
-
-                return followRepository.countByFollowing(user);
         }
 
         public long getFollowingCount(Long userId) throws Exception {
-                Users user = userRepository.findById(userId)
+                if (socialGraphIndex.isReady()) {
+                        userIdentityCache.findById(userId)
+                                        .orElseThrow(() -> new Exception("User not found"));
+                        return socialGraphIndex.followingCount(userId);
+                }
+                return userRepository.findFollowingCountById(userId)
                                 .orElseThrow(() -> new Exception("User not found"));
+        }
 
-                return followRepository.countByFollower(user);
+        /**
+         * One page of a user's followers, newest follow first. Pass the
+         * returned nextCursor to get the next page; size is capped at
+         * MAX_PAGE_SIZE.
+         */
+        public FollowPageDTO getFollowers(Long userId, String cursor, int size) throws Exception {
+                long total = getFollowersCount(userId);
+                FeedCursor after = FeedCursor.decode(cursor);
+                Limit limit = Limit.of(pageSize(size) + 1);
+
+                List<FollowEdge> edges = after == null
+                                ? followRepository.findFollowersFirstPage(userId, limit)
+                                : followRepository.findFollowersPageAfter(userId, after.getCreatedAt(), after.getId(), limit);
+
+                return toPage(edges, size, total);
         }
 
-        public List<Follow> getFollowers(Long userId) throws Exception {
-                Users user = userRepository.findById(userId)
-                                .orElseThrow(() -> new Exception("User not found"));
+        public FollowPageDTO getFollowing(Long userId, String cursor, int size) throws Exception {
+                long total = getFollowingCount(userId);
+                FeedCursor after = FeedCursor.decode(cursor);
+                Limit limit = Limit.of(pageSize(size) + 1);
+
+                List<FollowEdge> edges = after == null
+                                ? followRepository.findFollowingFirstPage(userId, limit)
+                                : followRepository.findFollowingPageAfter(userId, after.getCreatedAt(), after.getId(), limit);
 
-                return followRepository.findByFollowing(user);
+                return toPage(edges, size, total);
         }
 
-        public List<Follow> getFollowing(Long userId) throws Exception {
-                Users user = userRepository.findById(userId)
-                                .orElseThrow(() -> new Exception("User not found"));
+        /*
+         * =========================================================
+         * PAGINATION HELPERS
+         * =========================================================
+         */
 
-                return followRepository.findByFollower(user);
+        private int pageSize(int requested) {
+                if (requested < 1) {
+                        return DEFAULT_PAGE_SIZE;
+                }
+                return Math.min(requested, MAX_PAGE_SIZE);
+        }
+
+        // Queries fetch one extra row so we know whether another page exists
+        private FollowPageDTO toPage(List<FollowEdge> edges, int requestedSize, long total) {
+                int size = pageSize(requestedSize);
+                String nextCursor = null;
+                if (edges.size() > size) {
+                        edges = edges.subList(0, size);
+                        nextCursor = edges.get(size - 1).toCursor().encode();
+                }
+                List<UserDTO> users = new ArrayList<>(edges.size());
+                for (FollowEdge edge : edges) {
+                        users.add(edge.getUser());
+                }
+                return new FollowPageDTO(users, nextCursor, total);
         }
 }
@@ -0,0 +1,104 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.service.ImageStorageService;
+import com.abinav.webapplication.service.UserService;
+
+/**
+ * One-off migration of posts whose imageUrl, and users whose
+ * profilePhotoUrl, still hold a base64 data URI. Each image is decoded into
+ * the image store and the row is rewritten to the short /api/images/{hash}
+ * URL; profile photos also get their avatar variants queued, and are saved
+ * through UserService so cached identities, the search index and post
+ * ETags follow the new URL. Rows are handled one at a time so only a single
+ * image is in memory. Enable with app.images.migrate-legacy=true.
+ */
+@Component
+@ConditionalOnProperty(name = "app.images.migrate-legacy", havingValue = "true")
+public class LegacyImageMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyImageMigration.class);
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private AvatarService avatarService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long migrated = 0;
+        long failed = 0;
+        Long afterId = 0L;
+
+        List<Long> ids;
+        while (!(ids = postRepository.findInlineImagePostIds(afterId, Limit.of(BATCH_SIZE))).isEmpty()) {
+            for (Long id : ids) {
+                try {
+                    String dataUri = postRepository.findImageUrlById(id);
+                    String url = imageStorageService.storeDataUri(dataUri).getUrl();
+                    postRepository.updateImageUrl(id, url);
+                    migrated++;
+                } catch (Exception e) {
+                    // Leave the row as it is; it still renders as an inline image
+                    logger.warn("Could not migrate image of post {}: {}", id, e.getMessage());
+                    failed++;
+                }
+                afterId = id;
+            }
+            logger.info("Image migration progress: {} migrated, {} failed", migrated, failed);
+        }
+        logger.info("Image migration finished: {} migrated, {} failed", migrated, failed);
+
+        migrateProfilePhotos();
+    }
+
+    private void migrateProfilePhotos() {
+        long migrated = 0;
+        long failed = 0;
+        Long afterId = 0L;
+
+        List<Long> ids;
+        while (!(ids = userRepository.findInlinePhotoUserIds(afterId, Limit.of(BATCH_SIZE))).isEmpty()) {
+            for (Long id : ids) {
+                try {
+                    Users user = userService.findById(id).orElse(null);
+                    if (user != null) {
+                        user.setProfilePhotoUrl(avatarService.accept(user.getProfilePhotoUrl()));
+                        userService.updateUser(user);
+                        migrated++;
+                    }
+                } catch (Exception e) {
+                    logger.warn("Could not migrate profile photo of user {}: {}", id, e.getMessage());
+                    failed++;
+                }
+                afterId = id;
+            }
+            logger.info("Profile photo migration progress: {} migrated, {} failed", migrated, failed);
+        }
+        logger.info("Profile photo migration finished: {} migrated, {} failed", migrated, failed);
+    }
+}
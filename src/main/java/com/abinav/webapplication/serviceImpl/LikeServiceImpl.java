@@ -1,17 +1,33 @@
 package com.abinav.webapplication.serviceImpl;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import com.abinav.webapplication.model.Like;
-import com.abinav.webapplication.model.Post;
+import org.springframework.transaction.annotation.Transactional;
+import com.abinav.webapplication.dto.UserDTO;
+import com.abinav.webapplication.dto.UserSnapshot;
+import com.abinav.webapplication.event.PostCountersChangedEvent;
 import com.abinav.webapplication.model.Users;
 import com.abinav.webapplication.repository.LikeRepository;
 import com.abinav.webapplication.repository.PostRepository;
-import com.abinav.webapplication.repository.UserRepository;
 import com.abinav.webapplication.service.LikeService;
 
+/**
+ * Likes are written with single idempotent statements (insert-if-absent,
+ * delete-where) against the unique (user_id, post_id) constraint, so
+ * concurrent double-taps can neither duplicate a row nor double-count it.
+ * Counters move only when a row actually changed.
+ *
+ * With app.likes.write-behind.enabled, likePost/unlikePost are acknowledged
+ * by LikeWriteBehind and written in batches; reads here add its unflushed
+ * changes on top of the database.
+ */
 @Service
 public class LikeServiceImpl implements LikeService {
 
@@ -22,113 +38,151 @@ public class LikeServiceImpl implements LikeService {
     private PostRepository postRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserIdentityCache userIdentityCache;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LikeWriteBehind likeWriteBehind;
+
+    @Transactional(rollbackFor = Exception.class)
     @Override
-    public Like toggleLike(Long postId, String userEmail) throws Exception {
-        Users user = userRepository.findByEmail(userEmail)
+    public boolean toggleLike(Long postId, String userEmail) throws Exception {
+        Users user = userIdentityCache.findReferenceByEmail(userEmail)
             .orElseThrow(() -> new Exception("User not found"));
-        
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
-        
-        Optional<Like> existingLike = likeRepository.findByUserAndPost(user, post);
-        
-        if (existingLike.isPresent()) {
-            likeRepository.delete(existingLike.get());
-            return null; // Indicates like was removed
-        } else {
-            Like newLike = new Like();
-            newLike.setUser(user);
-            newLike.setPost(post);
-            return likeRepository.save(newLike);
+
+        if (unlikePost(postId, user.getId())) {
+            return false;
         }
+        likePost(postId, user.getId());
+        return true;
     }
 
     @Override
     public long getLikeCount(Long postId) throws Exception {
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
-        return likeRepository.countByPost(post);
+        return getLikesCount(postId);
     }
 
     @Override
     public boolean isLikedByUser(Long postId, String userEmail) throws Exception {
-        Users user = userRepository.findByEmail(userEmail)
+        Users user = userIdentityCache.findReferenceByEmail(userEmail)
             .orElseThrow(() -> new Exception("User not found"));
-        
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
-        
-        return likeRepository.existsByUserAndPost(user, post);
+
+        return isLikedByUser(postId, user.getId());
     }
 
+    @Transactional(rollbackFor = Exception.class)
     @Override
     public void deleteLike(Long postId, String userEmail) throws Exception {
-        Users user = userRepository.findByEmail(userEmail)
+        Users user = userIdentityCache.findReferenceByEmail(userEmail)
             .orElseThrow(() -> new Exception("User not found"));
-        
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
-        
-        Optional<Like> like = likeRepository.findByUserAndPost(user, post);
-        if (like.isPresent()) {
-            likeRepository.delete(like.get());
-        }
+
+        unlikePost(postId, user.getId());
     }
 
     // New methods for controller
-    public Like likePost(Long postId, Long userId) throws Exception {
-        Users user = userRepository.findById(userId)
+
+    /**
+     * Like a post. Returns true if a like was added, false if the user had
+     * already liked it.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public boolean likePost(Long postId, Long userId) throws Exception {
+        userIdentityCache.findById(userId)
             .orElseThrow(() -> new Exception("User not found"));
-        
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
-        
-        Optional<Like> existingLike = likeRepository.findByUserAndPost(user, post);
-        
-        if (existingLike.isPresent()) {
-            return existingLike.get();
+
+        if (likeWriteBehind.isEnabled()) {
+            return toggleBehind(userId, postId, true);
+        }
+
+        int inserted;
+        try {
+            inserted = likeRepository.insertIfAbsent(userId, postId);
+        } catch (DataIntegrityViolationException e) {
+            // Foreign key: the post does not exist
+            throw new Exception("Post not found");
         }
-        
-        Like newLike = new Like();
-        newLike.setUser(user);
-        newLike.setPost(post);
-        return likeRepository.save(newLike);
+
+        if (inserted == 0) {
+            // MySQL's INSERT IGNORE also swallows foreign key errors; only
+            // this rare path pays for telling them apart from a duplicate
+            if (!postRepository.existsById(postId)) {
+                throw new Exception("Post not found");
+            }
+            return false;
+        }
+        postRepository.adjustLikeCount(postId, 1);
+        eventPublisher.publishEvent(new PostCountersChangedEvent(postId, userId));
+        return true;
     }
 
-    public void unlikePost(Long postId, Long userId) throws Exception {
-        Users user = userRepository.findById(userId)
-            .orElseThrow(() -> new Exception("User not found"));
-        
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
-        
-        Optional<Like> like = likeRepository.findByUserAndPost(user, post);
-        if (like.isPresent()) {
-            likeRepository.delete(like.get());
+    /**
+     * Remove a like. Returns true if one was removed, false if there was none.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public boolean unlikePost(Long postId, Long userId) throws Exception {
+        if (likeWriteBehind.isEnabled()) {
+            return toggleBehind(userId, postId, false);
+        }
+        if (likeRepository.deleteByUserIdAndPostId(userId, postId) == 0) {
+            return false;
         }
+        postRepository.adjustLikeCount(postId, -1);
+        eventPublisher.publishEvent(new PostCountersChangedEvent(postId, userId));
+        return true;
+    }
+
+    // Acknowledged from memory; the overlay already shows it, so listeners hear of it now
+    private boolean toggleBehind(Long userId, Long postId, boolean liked) {
+        boolean changed = likeWriteBehind.toggle(userId, postId, liked);
+        if (changed) {
+            eventPublisher.publishEvent(new PostCountersChangedEvent(postId, userId));
+        }
+        return changed;
     }
 
     public long getLikesCount(Long postId) throws Exception {
-        Post post = postRepository.findById(postId)
+        long stored = postRepository.findLikeCountById(postId)
             .orElseThrow(() -> new Exception("Post not found"));
-        return likeRepository.countByPost(post);
+        return stored + likeWriteBehind.pendingDelta(postId);
     }
 
-    public List<Like> getPostLikes(Long postId) throws Exception {
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
-        return likeRepository.findByPost(post);
+    public List<UserDTO> getPostLikes(Long postId) throws Exception {
+        // Existence check only; the post row (and its image) is not loaded
+        if (!postRepository.existsById(postId)) {
+            throw new Exception("Post not found");
+        }
+        List<UserDTO> likers = likeRepository.findLikerDTOsByPostId(postId);
+        Map<Long, Boolean> pending = likeWriteBehind.pendingLikers(postId);
+        if (pending.isEmpty()) {
+            return likers;
+        }
+
+        // Unflushed likes first, as the newest, then stored likers not since unliked
+        Set<Long> stored = new HashSet<>();
+        for (UserDTO liker : likers) {
+            stored.add(liker.getId());
+        }
+        List<UserDTO> merged = new ArrayList<>();
+        pending.forEach((userId, liked) -> {
+            if (liked && !stored.contains(userId)) {
+                userIdentityCache.findById(userId).map(UserSnapshot::toDTO).ifPresent(merged::add);
+            }
+        });
+        for (UserDTO liker : likers) {
+            if (!Boolean.FALSE.equals(pending.get(liker.getId()))) {
+                merged.add(liker);
+            }
+        }
+        return merged;
     }
 
     public boolean isLikedByUser(Long postId, Long userId) throws Exception {
-        Users user = userRepository.findById(userId)
-            .orElseThrow(() -> new Exception("User not found"));
-        
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new Exception("Post not found"));
-        
-        return likeRepository.existsByUserAndPost(user, post);
+        Boolean pending = likeWriteBehind.pendingLiked(userId, postId);
+        if (pending != null) {
+            return pending;
+        }
+        return likeRepository.existsByUserIdAndPostId(userId, postId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,430 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abinav.webapplication.event.PostCountersChangedEvent;
+import com.abinav.webapplication.exception.ResourceNotFoundException;
+import com.abinav.webapplication.utility.LikeJournal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional write-behind path for likes (app.likes.write-behind.enabled).
+ *
+ * A like or unlike is acknowledged from an in-memory table of pending
+ * changes, coalesced per (user, post): a like followed by an unlike before
+ * the next flush cancels out and never reaches the database. Every
+ * flush-interval-ms, or as soon as batch-size changes are pending, the table
+ * is written in one transaction with JDBC batches (insert ignore / delete,
+ * then one counter update per post), sized by the rows that actually
+ * changed. That transaction is always a new one: the batch-size flush runs
+ * inside whatever transaction the filling request has open, and must not
+ * be rolled back with it once the journal segment is gone.
+ *
+ * Until a change is flushed, reads see it through the overlay: FeedHydrator
+ * and LikeServiceImpl apply pendingLiked(), pendingDelta() and, for the
+ * list of likers, pendingLikers() on top of the database values.
+ *
+ * Every accepted toggle is appended to a LikeJournal before it is
+ * acknowledged. On startup, segments left by a previous run are replayed;
+ * the statements are idempotent, so replaying toggles that had already been
+ * flushed is harmless. The journal is replayed even if write-behind has
+ * since been disabled.
+ */
+@Component
+public class LikeWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeWriteBehind.class);
+
+    private static final String INSERT_SQL =
+            "insert ignore into likes (user_id, post_id, created_at) values (?, ?, current_timestamp(6))";
+    private static final String DELETE_SQL = "delete from likes where user_id = ? and post_id = ?";
+    private static final String ADJUST_SQL =
+            "update posts set like_count = greatest(like_count + ?, 0) where id = ?";
+    private static final String RECOUNT_SQL =
+            "update posts set like_count = (select count(*) from likes l where l.post_id = posts.id) where id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.likes.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.likes.write-behind.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.likes.write-behind.journal-dir:data/like-journal}")
+    private String journalDir = "data/like-journal";
+
+    private record LikeKey(long userId, long postId) {
+    }
+
+    // A pending change relative to what the database (or the flush in progress) holds
+    private record Change(boolean persisted, boolean liked) {
+        int delta() {
+            return (liked ? 1 : 0) - (persisted ? 1 : 0);
+        }
+    }
+
+    // Serializes toggles, journal appends and the swap of pending into inflight
+    private final ReentrantLock lock = new ReentrantLock();
+    // One flush at a time
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Written under lock; read without it by the overlay
+    private volatile Map<LikeKey, Change> pending = new ConcurrentHashMap<>();
+    private volatile Map<LikeKey, Change> inflight = Map.of();
+    private final Map<Long, Integer> postDeltas = new ConcurrentHashMap<>();
+
+    private LikeJournal journal;
+
+    private TransactionTemplate flushTransaction;
+
+    @PostConstruct
+    void openJournal() {
+        flushTransaction = new TransactionTemplate(transactionManager);
+        flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Path dir = Paths.get(journalDir);
+        if (enabled || Files.isDirectory(dir)) {
+            journal = new LikeJournal(dir);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /* ===== Toggles ===== */
+
+    /**
+     * Records a like (liked = true) or unlike. Returns true if this changed
+     * the user's state, false if it was already so.
+     */
+    public boolean toggle(long userId, long postId, boolean liked) {
+        LikeKey key = new LikeKey(userId, postId);
+
+        while (true) {
+            // The database is consulted outside the lock, and only for pairs
+            // with no change in memory; it also answers whether the post exists
+            Boolean stored = currentState(key) == null ? loadState(userId, postId) : null;
+
+            lock.lock();
+            try {
+                Boolean current = currentState(key);
+                if (current == null) {
+                    current = stored;
+                }
+                if (current == null) {
+                    // A flush took the pending change while we were reading; look again
+                    continue;
+                }
+                if (current == liked) {
+                    return false;
+                }
+                Change previous = pending.get(key);
+                Change next = new Change(previous != null ? previous.persisted() : current, liked);
+
+                journal.append(userId, postId, liked);
+                if (next.delta() == 0) {
+                    pending.remove(key);
+                } else {
+                    pending.put(key, next);
+                }
+                adjustDelta(postId, next.delta() - (previous != null ? previous.delta() : 0));
+            } finally {
+                lock.unlock();
+            }
+
+            if (pending.size() >= batchSize) {
+                // Backpressure: the request that fills the batch writes it
+                flush();
+            }
+            return true;
+        }
+    }
+
+    // Keeps only non-zero deltas, so an empty map means nothing to overlay
+    private void adjustDelta(long postId, int delta) {
+        if (delta != 0) {
+            postDeltas.merge(postId, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    /* ===== Overlay ===== */
+
+    // The viewer's unflushed like state for the post, or null if nothing is pending
+    public Boolean pendingLiked(long userId, long postId) {
+        return currentState(new LikeKey(userId, postId));
+    }
+
+    // Net unflushed change to the post's like count
+    public int pendingDelta(long postId) {
+        return postDeltas.getOrDefault(postId, 0);
+    }
+
+    // The post's unflushed like states by user id, newest change winning
+    public Map<Long, Boolean> pendingLikers(long postId) {
+        Map<Long, Boolean> states = new HashMap<>();
+        for (Map<LikeKey, Change> changes : List.of(inflight, pending)) {
+            changes.forEach((key, change) -> {
+                if (key.postId() == postId) {
+                    states.put(key.userId(), change.liked());
+                }
+            });
+        }
+        return states;
+    }
+
+    public boolean hasPending() {
+        return !postDeltas.isEmpty();
+    }
+
+    private Boolean currentState(LikeKey key) {
+        Change change = pending.get(key);
+        if (change == null) {
+            change = inflight.get(key);
+        }
+        return change == null ? null : change.liked();
+    }
+
+    /* ===== Flush ===== */
+
+    /**
+     * Writes every pending change to the database. Called by
+     * LikeWriteBehindFlushJob, when a batch fills up, and on shutdown.
+     */
+    public void flush() {
+        if (journal == null || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            Map<LikeKey, Change> batch;
+            long segment;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                inflight = batch;
+                pending = new ConcurrentHashMap<>();
+                segment = journal.rotate();
+            } finally {
+                lock.unlock();
+            }
+
+            Set<Long> posts;
+            try {
+                posts = write(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Like write-behind flush of {} changes failed; will retry", batch.size(), e);
+                requeue(batch);
+                return;
+            }
+
+            lock.lock();
+            try {
+                // The database now holds these; stop overlaying them
+                for (Map.Entry<LikeKey, Change> entry : batch.entrySet()) {
+                    adjustDelta(entry.getKey().postId(), -entry.getValue().delta());
+                }
+                inflight = Map.of();
+            } finally {
+                lock.unlock();
+            }
+            // Includes segments of earlier failed flushes, whose changes were requeued into this one
+            journal.delete(journal.getFirstSeq(), segment);
+
+            for (Long postId : posts) {
+                eventPublisher.publishEvent(new PostCountersChangedEvent(postId));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // A failed batch goes back in front of anything toggled since
+    private void requeue(Map<LikeKey, Change> batch) {
+        lock.lock();
+        try {
+            Map<LikeKey, Change> merged = new ConcurrentHashMap<>(batch);
+            for (Map.Entry<LikeKey, Change> entry : pending.entrySet()) {
+                Change older = merged.get(entry.getKey());
+                Change newer = entry.getValue();
+                Change combined = older == null ? newer : new Change(older.persisted(), newer.liked());
+                if (combined.delta() == 0) {
+                    merged.remove(entry.getKey());
+                } else {
+                    merged.put(entry.getKey(), combined);
+                }
+            }
+            pending = merged;
+            inflight = Map.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the changes in one new transaction and returns the posts whose
+     * counters moved. Counters follow the rows the statements actually
+     * changed, so likes written elsewhere in the meantime are not counted
+     * twice.
+     */
+    private Set<Long> write(Map<LikeKey, Change> batch) {
+        Set<Long> existingPosts = existingPosts(batch.keySet());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Long> insertPosts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Long> deletePosts = new ArrayList<>();
+        for (Map.Entry<LikeKey, Change> entry : batch.entrySet()) {
+            LikeKey key = entry.getKey();
+            if (entry.getValue().liked()) {
+                // Posts deleted since the like was accepted are skipped
+                if (existingPosts.contains(key.postId())) {
+                    inserts.add(new Object[] { key.userId(), key.postId() });
+                    insertPosts.add(key.postId());
+                }
+            } else {
+                deletes.add(new Object[] { key.userId(), key.postId() });
+                deletePosts.add(key.postId());
+            }
+        }
+
+        return flushTransaction.execute(status -> {
+            Map<Long, Integer> deltas = new LinkedHashMap<>();
+            Set<Long> recount = new HashSet<>();
+            tally(jdbcTemplate.batchUpdate(INSERT_SQL, inserts), insertPosts, 1, deltas, recount);
+            tally(jdbcTemplate.batchUpdate(DELETE_SQL, deletes), deletePosts, -1, deltas, recount);
+
+            List<Object[]> adjustments = new ArrayList<>();
+            deltas.forEach((postId, delta) -> {
+                if (delta != 0 && !recount.contains(postId)) {
+                    adjustments.add(new Object[] { delta, postId });
+                }
+            });
+            jdbcTemplate.batchUpdate(ADJUST_SQL, adjustments);
+
+            List<Object[]> recounts = new ArrayList<>();
+            recount.forEach(postId -> recounts.add(new Object[] { postId }));
+            jdbcTemplate.batchUpdate(RECOUNT_SQL, recounts);
+
+            Set<Long> changed = new HashSet<>(recount);
+            deltas.forEach((postId, delta) -> {
+                if (delta != 0) {
+                    changed.add(postId);
+                }
+            });
+            return changed;
+        });
+    }
+
+    // Drivers that rewrite batches report SUCCESS_NO_INFO; those posts are recounted instead
+    private static void tally(int[] counts, List<Long> postIds, int sign, Map<Long, Integer> deltas,
+            Set<Long> recount) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                recount.add(postIds.get(i));
+            } else if (counts[i] > 0) {
+                deltas.merge(postIds.get(i), sign * counts[i], Integer::sum);
+            }
+        }
+    }
+
+    private Set<Long> existingPosts(Set<LikeKey> keys) {
+        Set<Long> postIds = new HashSet<>();
+        keys.forEach(key -> postIds.add(key.postId()));
+        if (postIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String placeholders = String.join(",", Collections.nCopies(postIds.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select id from posts where id in (" + placeholders + ")", Long.class, postIds.toArray()));
+    }
+
+    // Whether the user likes the post; one round trip that also proves the post exists
+    private boolean loadState(long userId, long postId) {
+        List<Integer> liked = jdbcTemplate.queryForList(
+                "select (select count(*) from likes l where l.user_id = ? and l.post_id = p.id) "
+                        + "from posts p where p.id = ?",
+                Integer.class, userId, postId);
+        if (liked.isEmpty()) {
+            throw new ResourceNotFoundException("Post not found");
+        }
+        return liked.get(0) > 0;
+    }
+
+    /* ===== Recovery and shutdown ===== */
+
+    // Segments of an earlier run only; this run's are flushed from memory
+    @EventListener(ApplicationReadyEvent.class)
+    public void replay() {
+        if (journal == null) {
+            return;
+        }
+        List<LikeJournal.Record> records = journal.readPreviousRuns();
+        if (records.isEmpty()) {
+            journal.delete(0, journal.getFirstSeq() - 1);
+            return;
+        }
+        // Last toggle per pair wins; its earlier state is unknown, so the
+        // idempotent statements decide whether anything changes
+        Map<LikeKey, Change> batch = new HashMap<>();
+        for (LikeJournal.Record record : records) {
+            batch.put(new LikeKey(record.userId(), record.postId()), new Change(!record.liked(), record.liked()));
+        }
+        Set<Long> posts = write(batch);
+        journal.delete(0, journal.getFirstSeq() - 1);
+        logger.info("Replayed {} journaled like changes ({} pairs, {} posts changed)",
+                records.size(), batch.size(), posts.size());
+        for (Long postId : posts) {
+            eventPublisher.publishEvent(new PostCountersChangedEvent(postId));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+}
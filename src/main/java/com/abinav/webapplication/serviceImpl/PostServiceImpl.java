@@ -1,26 +1,36 @@
 package com.abinav.webapplication.serviceImpl;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.abinav.webapplication.model.Post;
 import com.abinav.webapplication.dto.PostDTO;
+import com.abinav.webapplication.dto.PostPageDTO;
+import com.abinav.webapplication.event.PostChangedEvent;
+import com.abinav.webapplication.event.PostCreatedEvent;
 import com.abinav.webapplication.model.Users;
-import com.abinav.webapplication.repository.CommentRepository;
-import com.abinav.webapplication.repository.FollowRepository;
-import com.abinav.webapplication.repository.LikeRepository;
 import com.abinav.webapplication.repository.PostRepository;
 import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.service.ImageStorageService;
 import com.abinav.webapplication.service.PostService;
+import com.abinav.webapplication.utility.FeedCursor;
 import com.abinav.webapplication.exception.ResourceNotFoundException;
 import com.abinav.webapplication.exception.ValidationException;
 
 @Service
 public class PostServiceImpl implements PostService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private PostRepository postRepository;
 
@@ -28,14 +38,16 @@ public class PostServiceImpl implements PostService {
     private UserRepository userRepository;
 
     @Autowired
-    private LikeRepository likeRepository;
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private FeedHydrator feedHydrator;
 
     @Autowired
-    private CommentRepository commentRepository;
+    private ImageStorageService imageStorageService;
 
-    // 🔥 NEW
     @Autowired
-    private FollowRepository followRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     /*
      * =========================================================
@@ -44,11 +56,16 @@ public class PostServiceImpl implements PostService {
      */
 
     @Override
+    @Transactional
     public Post createPost(Post post) {
         if (post.getUser() == null) {
             throw new ValidationException("User information is required");
         }
-        return postRepository.save(post);
+        post.setImageUrl(storeInlineImage(post.getImageUrl()));
+        Post saved = postRepository.save(post);
+        // Timeline fan-out runs once this transaction commits
+        eventPublisher.publishEvent(new PostCreatedEvent(saved.getId(), saved.getUser().getId()));
+        return saved;
     }
 
     @Override
@@ -60,10 +77,12 @@ public class PostServiceImpl implements PostService {
             post.setCaption(updatedPost.getCaption());
         }
         if (updatedPost.getImageUrl() != null) {
-            post.setImageUrl(updatedPost.getImageUrl());
+            post.setImageUrl(storeInlineImage(updatedPost.getImageUrl()));
         }
 
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(postId));
+        return saved;
     }
 
     @Override
@@ -71,6 +90,7 @@ public class PostServiceImpl implements PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
         postRepository.delete(post);
+        eventPublisher.publishEvent(new PostChangedEvent(postId));
     }
 
     @Override
@@ -79,55 +99,44 @@ public class PostServiceImpl implements PostService {
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
     }
 
+    // Base64 data URIs are decoded once into the image store; the post keeps only its URL
+    private String storeInlineImage(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith("data:")) {
+            return imageUrl;
+        }
+        try {
+            return imageStorageService.storeDataUri(imageUrl).getUrl();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store post image", e);
+        }
+    }
+
     /*
      * =========================================================
      * SINGLE POST DTO
      * =========================================================
      */
 
+    // The post, its author and the viewer's like come back in one statement;
+    // following-author comes from the social graph
     @Override
-    public PostDTO getPostDTOById(Long postId, String currentUserEmail) {
-
-        Post post = getPostById(postId);
-
-        Users author = post.getUser();
-
-        PostDTO dto = new PostDTO();
-        dto.setId(post.getId());
-        dto.setAuthorId(author.getId()); // 🔥 NEW
-        dto.setUsername(author.getUsername());
-        dto.setUserEmail(author.getEmail());
-        dto.setCaption(post.getCaption());
-        dto.setImageUrl(post.getImageUrl());
-        dto.setCreatedAt(post.getCreatedAt());
-        dto.setLikeCount(likeRepository.countByPost(post));
-        dto.setCommentCount(commentRepository.countByPost(post));
-
-        // If no user is logged in, return default values
-        if (currentUserEmail == null) {
-            dto.setLikedByCurrentUser(false);
-            dto.setFollowingAuthor(false);
-            return dto;
+    public PostDTO getPostDTOById(Long postId, Long currentUserId) {
+        Users viewer = resolveViewer(currentUserId);
+        if (viewer == null) {
+            return feedHydrator.hydrate(List.of(loadWithAuthor(postId)), null).get(0);
         }
 
-        Users currentUser = userRepository.findByEmail(currentUserEmail)
-                .orElse(null);
-
-        if (currentUser == null) {
-            dto.setLikedByCurrentUser(false);
-            dto.setFollowingAuthor(false);
-            return dto;
-        }
-
-        // liked
-        dto.setLikedByCurrentUser(
-                likeRepository.existsByUserAndPost(currentUser, post));
-
-        // 🔥 FOLLOW STATE
-        dto.setFollowingAuthor(
-                followRepository.existsByFollowerAndFollowing(currentUser, author));
+        Object[] row = postRepository.findWithUserAndLikedById(postId, currentUserId).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+        Post post = (Post) row[0];
+        Set<Long> likedPostIds = Boolean.TRUE.equals(row[1]) ? Set.of(postId) : Set.of();
+        return feedHydrator.hydrate(List.of(post), viewer, likedPostIds).get(0);
+    }
 
-        return dto;
+    private Post loadWithAuthor(Long postId) {
+        return postRepository.findWithUserById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
     }
 
     /*
@@ -137,13 +146,23 @@ public class PostServiceImpl implements PostService {
      */
 
     @Override
-    public List<PostDTO> getUserPosts(String email) {
-        Users user = userRepository.findByEmail(email)
+    public PostPageDTO getUserPosts(String email, String cursor, int size) {
+        Users user = userIdentityCache.findReferenceByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        List<Post> posts = postRepository.findByUserOrderByCreatedAtDesc(user);
+        FeedCursor after = FeedCursor.decode(cursor);
+        Limit limit = Limit.of(pageSize(size) + 1);
+
+        List<Post> posts = after == null
+                ? postRepository.findUserFirstPage(user, limit)
+                : postRepository.findUserPageAfter(user, after.getCreatedAt(), after.getId(), limit);
+
+        return toPage(posts, size, user);
+    }
 
-        return convertToDTO(posts, email);
+    @Override
+    public long getPostCount(Long userId) {
+        return postRepository.countByUserId(userId);
     }
 
     /*
@@ -153,64 +172,44 @@ public class PostServiceImpl implements PostService {
      */
 
     @Override
-    public List<PostDTO> getAllPosts(String currentUserEmail) {
+    public PostPageDTO getFeed(String cursor, int size, Long currentUserId) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        Limit limit = Limit.of(pageSize(size) + 1);
 
-        List<Post> posts = postRepository.findAllByOrderByCreatedAtDesc();
+        List<Post> posts = after == null
+                ? postRepository.findFeedFirstPage(limit)
+                : postRepository.findFeedPageAfter(after.getCreatedAt(), after.getId(), limit);
 
-        return convertToDTO(posts, currentUserEmail);
+        return toPage(posts, size, resolveViewer(currentUserId));
     }
 
     /*
      * =========================================================
-     * DTO CONVERSION (CORE LOGIC)
+     * PAGINATION HELPERS
      * =========================================================
      */
 
-    private List<PostDTO> convertToDTO(
-            List<Post> posts,
-            String currentUserEmail) {
+    static int pageSize(int requested) {
+        if (requested < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
 
-        // Allow null currentUserEmail - just return posts with default liked/following
-        // state
-        Users currentUser = null;
-        if (currentUserEmail != null) {
-            currentUser = userRepository.findByEmail(currentUserEmail).orElse(null);
+    // Queries fetch one extra row so we know whether another page exists
+    private PostPageDTO toPage(List<Post> posts, int requestedSize, Users viewer) {
+        int size = pageSize(requestedSize);
+        String nextCursor = null;
+        if (posts.size() > size) {
+            posts = posts.subList(0, size);
+            Post last = posts.get(size - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
         }
+        return new PostPageDTO(feedHydrator.hydrate(posts, viewer), nextCursor);
+    }
 
-        final Users finalCurrentUser = currentUser;
-
-        return posts.stream().map(post -> {
-
-            Users author = post.getUser();
-
-            PostDTO dto = new PostDTO();
-            dto.setId(post.getId());
-            dto.setAuthorId(author.getId()); // 🔥 NEW
-            dto.setUsername(author.getUsername());
-            dto.setUserEmail(author.getEmail());
-            dto.setCaption(post.getCaption());
-            dto.setImageUrl(post.getImageUrl());
-            dto.setCreatedAt(post.getCreatedAt());
-            dto.setLikeCount(likeRepository.countByPost(post));
-            dto.setCommentCount(commentRepository.countByPost(post));
-
-            // If no current user, default to not liked and not following
-            if (finalCurrentUser == null) {
-                dto.setLikedByCurrentUser(false);
-                dto.setFollowingAuthor(false);
-            } else {
-                // liked
-                dto.setLikedByCurrentUser(
-                        likeRepository.existsByUserAndPost(finalCurrentUser, post));
-
-                // 🔥 FOLLOW STATE (KEY FIX)
-                dto.setFollowingAuthor(
-                        followRepository.existsByFollowerAndFollowing(
-                                finalCurrentUser, author));
-            }
-
-            return dto;
-
-        }).collect(Collectors.toList());
+    // The hydrator only needs the viewer's id, so a reference avoids loading the user
+    private Users resolveViewer(Long currentUserId) {
+        return currentUserId == null ? null : userRepository.getReferenceById(currentUserId);
     }
 }
@@ -0,0 +1,256 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.abinav.webapplication.event.FollowChangedEvent;
+import com.abinav.webapplication.utility.FollowGraph;
+
+/**
+ * In-process copy of the follow graph, so follow checks and follower /
+ * following counts are answered without the database.
+ *
+ * Built from the follows table once the application is ready, then kept
+ * current by the after-commit FollowChangedEvent of every follow/unfollow.
+ * Writes that bypass FollowServiceImpl (manual SQL, other instances) are
+ * picked up by the periodic rebuild in SocialGraphRefreshJob. Until the
+ * first build finishes, isReady() is false and callers use the database.
+ */
+@Component
+public class SocialGraphIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SocialGraphIndex.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.graph.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.graph.load-batch-size:50000}")
+    private int loadBatchSize = 50_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Guarded by lock
+    private FollowGraph graph;
+    // Changes seen while a rebuild is loading; replayed onto the new graph. Guarded by lock
+    private List<FollowChangedEvent> pending;
+
+    private volatile boolean ready;
+    private volatile long lastBuildMillis;
+    private volatile long lastBuiltAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /* ===== Queries (callers check isReady() first) ===== */
+
+    public boolean isFollowing(long followerId, long followingId) {
+        lock.readLock().lock();
+        try {
+            return graph.contains(followerId, followingId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Long> followedAmong(long followerId, Collection<Long> userIds) {
+        lock.readLock().lock();
+        try {
+            return graph.followedAmong(followerId, userIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long followerCount(long userId) {
+        lock.readLock().lock();
+        try {
+            return graph.followerCount(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long followingCount(long userId) {
+        lock.readLock().lock();
+        try {
+            return graph.followingCount(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* ===== Maintenance ===== */
+
+    // Synchronous so the user who just followed sees it on their next request
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (graph != null) {
+                apply(graph, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads a fresh graph from the follows table and swaps it in. Reads keep
+     * using the current graph while the new one loads.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            swapInFreshGraph();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * On-demand rebuild: returns false at once if a rebuild is already
+     * running, so repeated requests cannot queue up full loads.
+     */
+    public boolean rebuildUnlessRunning() {
+        if (!rebuildLock.tryLock()) {
+            return false;
+        }
+        try {
+            swapInFreshGraph();
+            return true;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Caller holds rebuildLock
+    private void swapInFreshGraph() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        FollowGraph fresh;
+        try {
+            fresh = load();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Follow writes are idempotent, so replaying ones the load already saw is harmless
+            for (FollowChangedEvent event : pending) {
+                apply(fresh, event);
+            }
+            pending = null;
+            graph = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        lastBuildMillis = System.currentTimeMillis() - start;
+        lastBuiltAt = System.currentTimeMillis();
+        logger.info("Social graph index built: {} edges, {} users, ~{} KB in {} ms",
+                fresh.edgeCount(), fresh.nodeCount(), fresh.estimatedBytes() / 1024, lastBuildMillis);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        lock.readLock().lock();
+        try {
+            if (graph != null) {
+                long edges = graph.edgeCount();
+                long bytes = graph.estimatedBytes();
+                stats.put("users", graph.nodeCount());
+                stats.put("edges", edges);
+                stats.put("estimatedBytes", bytes);
+                stats.put("bytesPerMillionEdges", edges == 0 ? 0 : bytes * 1_000_000 / edges);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("lastBuildMillis", lastBuildMillis);
+        stats.put("lastBuiltAt", lastBuiltAt);
+        return stats;
+    }
+
+    // Keyset batches over uk_follows_follower_following, so rows arrive sorted
+    // and no driver-specific result streaming is needed
+    private FollowGraph load() {
+        // Presize for every user so the table never rehashes during the load
+        Long users = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        FollowGraph fresh = new FollowGraph((int) Math.min(1 << 28, Math.max(1024, users)));
+
+        long[] last = { 0, 0 };
+        int read;
+        do {
+            int[] count = { 0 };
+            jdbcTemplate.query("select follower_id, following_id from follows "
+                    + "where follower_id > ? or (follower_id = ? and following_id > ?) "
+                    + "order by follower_id, following_id limit ?",
+                    rs -> {
+                        last[0] = rs.getLong(1);
+                        last[1] = rs.getLong(2);
+                        fresh.add(last[0], last[1]);
+                        count[0]++;
+                    },
+                    last[0], last[0], last[1], loadBatchSize);
+            read = count[0];
+        } while (read == loadBatchSize);
+
+        fresh.compact();
+        return fresh;
+    }
+
+    private static void apply(FollowGraph target, FollowChangedEvent event) {
+        if (event.isFollowing()) {
+            target.add(event.getFollowerId(), event.getFollowingId());
+        } else {
+            target.remove(event.getFollowerId(), event.getFollowingId());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.abinav.webapplication.dto.PostPageDTO;
+import com.abinav.webapplication.event.FollowChangedEvent;
+import com.abinav.webapplication.event.PostCreatedEvent;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.TimelineEntry;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.FollowRepository;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.repository.TimelineRepository;
+import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.service.TimelineService;
+import com.abinav.webapplication.utility.FeedCursor;
+
+/**
+ * Home timelines, materialized on write.
+ *
+ * Creating a post copies its id into timeline_entries for every follower
+ * (fan-out on write), so reading a timeline is one range scan. Authors with
+ * at least app.timeline.celebrity-threshold followers are not fanned out;
+ * their recent posts are merged in at read time instead (fan-out on read).
+ * Timelines are trimmed to app.timeline.max-entries by TimelineMaintenanceJob.
+ */
+@Service
+public class TimelineServiceImpl implements TimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineServiceImpl.class);
+
+    // Newest first, ties broken by id; the same order FeedCursor encodes
+    private static final Comparator<Post> NEWEST_FIRST = Comparator
+            .comparing(Post::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Post::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FeedHydrator feedHydrator;
+
+    @Autowired
+    private SocialGraphIndex socialGraphIndex;
+
+    @Value("${app.timeline.celebrity-threshold:10000}")
+    private long celebrityThreshold = 10_000;
+
+    @Value("${app.timeline.backfill:50}")
+    private int backfill = 50;
+
+    @Value("${app.timeline.max-entries:800}")
+    private int maxEntries = 800;
+
+    // Refreshed by TimelineMaintenanceJob; may lag a new celebrity by one interval
+    private volatile Set<Long> celebrities;
+
+    /* ===== Read ===== */
+
+    @Override
+    public PostPageDTO getTimeline(Long userId, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = size < 1 ? PostServiceImpl.DEFAULT_PAGE_SIZE : Math.min(size, PostServiceImpl.MAX_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1);
+        Users viewer = userRepository.getReferenceById(userId);
+
+        List<TimelineEntry> entries = after == null
+                ? timelineRepository.findFirstPage(userId, limit)
+                : timelineRepository.findPageAfter(userId, after.getCreatedAt(), after.getId(), limit);
+
+        // Materialized entries, keyed by post id to dedupe against the merge below
+        Map<Long, Post> posts = new HashMap<>();
+        if (!entries.isEmpty()) {
+            List<Long> ids = entries.stream().map(e -> e.getId().getPostId()).toList();
+            for (Post post : postRepository.findWithUserByIdIn(ids)) {
+                posts.put(post.getId(), post);
+            }
+        }
+
+        // Fan-out on read for followed authors too big to fan out on write
+        List<Long> followedCelebrities = followedCelebrities(viewer);
+        if (!followedCelebrities.isEmpty()) {
+            List<Post> celebrityPosts = after == null
+                    ? postRepository.findAuthorsFirstPage(followedCelebrities, limit)
+                    : postRepository.findAuthorsPageAfter(followedCelebrities, after.getCreatedAt(), after.getId(), limit);
+            for (Post post : celebrityPosts) {
+                posts.putIfAbsent(post.getId(), post);
+            }
+        }
+
+        List<Post> merged = new ArrayList<>(posts.values());
+        merged.sort(NEWEST_FIRST);
+
+        String nextCursor = null;
+        if (merged.size() > pageSize) {
+            merged = merged.subList(0, pageSize);
+            Post last = merged.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new PostPageDTO(feedHydrator.hydrate(merged, viewer), nextCursor);
+    }
+
+    private List<Long> followedCelebrities(Users viewer) {
+        Set<Long> current = celebrities();
+        if (current.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (socialGraphIndex.isReady()) {
+            return new ArrayList<>(socialGraphIndex.followedAmong(viewer.getId(), current));
+        }
+        return followRepository.findFollowedUserIds(viewer, current);
+    }
+
+    /* ===== Write (fan-out) ===== */
+
+    @Override
+    public void fanOut(Long postId, Long authorId) {
+        if (isCelebrity(authorId)) {
+            timelineRepository.insertOwn(postId);
+            return;
+        }
+        int rows = timelineRepository.fanOut(postId);
+        logger.debug("Fanned out post {} to {} timelines", postId, rows);
+    }
+
+    @Override
+    public void onFollow(Long followerId, Long followingId) {
+        if (!isCelebrity(followingId)) {
+            timelineRepository.backfill(followerId, followingId, backfill);
+        }
+    }
+
+    @Override
+    public void onUnfollow(Long followerId, Long followingId) {
+        timelineRepository.deleteAuthorEntries(followerId, followingId);
+    }
+
+    // Fan-out runs after the creating transaction commits, off the request thread
+    @Async("timelineExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void handlePostCreated(PostCreatedEvent event) {
+        fanOut(event.getPostId(), event.getAuthorId());
+    }
+
+    @Async("timelineExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void handleFollowChanged(FollowChangedEvent event) {
+        if (event.isFollowing()) {
+            onFollow(event.getFollowerId(), event.getFollowingId());
+        } else {
+            onUnfollow(event.getFollowerId(), event.getFollowingId());
+        }
+    }
+
+    /* ===== Maintenance ===== */
+
+    public boolean isCelebrity(Long userId) {
+        return celebrities().contains(userId);
+    }
+
+    public void refreshCelebrities() {
+        celebrities = new HashSet<>(timelineRepository.findUserIdsWithFollowersAtLeast(celebrityThreshold));
+    }
+
+    private Set<Long> celebrities() {
+        Set<Long> current = celebrities;
+        if (current == null) {
+            refreshCelebrities();
+            current = celebrities;
+        }
+        return current;
+    }
+
+    // Drops everything past the newest maxEntries of each oversized timeline
+    public int trimTimelines() {
+        int removed = 0;
+        for (Long userId : timelineRepository.findUserIdsOverLimit(maxEntries)) {
+            List<TimelineEntry> cutoff = timelineRepository.findEntryAt(userId, PageRequest.of(maxEntries, 1));
+            if (!cutoff.isEmpty()) {
+                TimelineEntry first = cutoff.get(0);
+                removed += timelineRepository.deleteOlderThan(userId, first.getCreatedAt(), first.getId().getPostId());
+            }
+        }
+        return removed;
+    }
+}
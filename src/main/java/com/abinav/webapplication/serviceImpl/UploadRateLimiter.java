@@ -0,0 +1,46 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Caps how many images one user may put into the image store per window
+ * (app.images.upload-limit per app.images.upload-window-ms), whether as a
+ * raw upload, a multipart post or a data URI. Fixed windows: a user's count
+ * starts with their first upload and resets when the window ends.
+ */
+@Component
+public class UploadRateLimiter {
+
+    @Value("${app.images.upload-limit:60}")
+    private int limit = 60;
+
+    @Value("${app.images.upload-window-ms:3600000}")
+    private long windowMillis = 3_600_000;
+
+    private Cache<Long, AtomicInteger> windows;
+
+    @PostConstruct
+    public void init() {
+        windows = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(windowMillis))
+                .build();
+    }
+
+    // Counts one upload, or throws once the user is over the limit
+    public void acquire(Long userId) {
+        if (windows.get(userId, k -> new AtomicInteger()).incrementAndGet() > limit) {
+            throw new TooManyRequestsException("Image upload limit reached; try again later");
+        }
+    }
+}
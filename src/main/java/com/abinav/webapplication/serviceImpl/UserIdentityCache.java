@@ -0,0 +1,154 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.dto.UserSnapshot;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Read-through cache of user identities in front of UserRepository.
+ *
+ * Two maps: email to id, and id to an immutable UserSnapshot. Both are
+ * bounded by time since load, so a missed invalidation heals itself after
+ * the TTL. The email map is bounded by count; the snapshot map by
+ * estimated bytes (UserSnapshot.weight), since a legacy profile photo can
+ * still be a data URI of several megabytes. Unknown users are not cached.
+ *
+ * Services that only need a user to attach to a new row should use
+ * findReference, which checks existence here and hands back a JPA reference
+ * without loading the row.
+ */
+@Component
+public class UserIdentityCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.users.cache.max-size:10000}")
+    private long maxSize = 10_000;
+
+    @Value("${app.users.cache.max-weight-bytes:16777216}")
+    private long maxWeightBytes = 16 * 1024 * 1024;
+
+    @Value("${app.users.cache.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    private Cache<String, Long> idsByEmail;
+    private Cache<Long, UserSnapshot> usersById;
+
+    @PostConstruct
+    public void init() {
+        idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        usersById = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long id, UserSnapshot user) -> user.weight())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<UserSnapshot> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(usersById.get(id,
+                key -> userRepository.findById(key).map(UserSnapshot::of).orElse(null)));
+    }
+
+    // Bulk lookup for result lists: cached users cost nothing, the rest one query. Unknown ids are absent
+    public Map<Long, UserSnapshot> findAllById(Collection<Long> ids) {
+        return usersById.getAll(ids, missing -> {
+            Map<Long, UserSnapshot> loaded = new HashMap<>();
+            userRepository.findAllById(new ArrayList<Long>(missing))
+                    .forEach(user -> loaded.put(user.getId(), UserSnapshot.of(user)));
+            return loaded;
+        });
+    }
+
+    public Optional<UserSnapshot> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Long id = idsByEmail.get(email, key -> userRepository.findByEmail(key)
+                .map(user -> {
+                    // The row is already loaded; seed the id map with it too
+                    usersById.put(user.getId(), UserSnapshot.of(user));
+                    return user.getId();
+                })
+                .orElse(null));
+        return findById(id);
+    }
+
+    // A lazy reference for wiring associations; empty if the user does not exist
+    public Optional<Users> findReference(Long id) {
+        return findById(id).map(user -> userRepository.getReferenceById(user.getId()));
+    }
+
+    public Optional<Users> findReferenceByEmail(String email) {
+        return findByEmail(email).map(user -> userRepository.getReferenceById(user.getId()));
+    }
+
+    /**
+     * Drop everything cached for this user. Call after any change to the
+     * user's row; the email it was cached under may differ from the new one.
+     */
+    public void evict(Users user) {
+        UserSnapshot cached = usersById.getIfPresent(user.getId());
+        usersById.invalidate(user.getId());
+        if (cached != null) {
+            idsByEmail.invalidate(cached.getEmail());
+        }
+        if (user.getEmail() != null) {
+            idsByEmail.invalidate(user.getEmail());
+        }
+    }
+
+    public void invalidateAll() {
+        idsByEmail.invalidateAll();
+        usersById.invalidateAll();
+    }
+
+    /* ===== Statistics ===== */
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("idsByEmail", describe(idsByEmail));
+        stats.put("usersById", describe(usersById));
+        return stats;
+    }
+
+    private static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("size", cache.estimatedSize());
+        cache.policy().eviction()
+                .filter(eviction -> eviction.isWeighted())
+                .ifPresent(eviction -> map.put("weightBytes", eviction.weightedSize().orElse(0)));
+        map.put("hits", stats.hitCount());
+        map.put("misses", stats.missCount());
+        map.put("hitRate", stats.hitRate());
+        map.put("evictions", stats.evictionCount());
+        map.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return map;
+    }
+}
@@ -0,0 +1,210 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.abinav.webapplication.dto.UserDTO;
+import com.abinav.webapplication.dto.UserSnapshot;
+import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.utility.UserMapper;
+import com.abinav.webapplication.utility.UserNameIndex;
+
+/**
+ * User search by username or email, served from an in-memory UserNameIndex.
+ *
+ * Loaded from the users table once the application is ready and updated by
+ * UserServiceImpl on every create/update. Users written elsewhere (other
+ * instances, manual SQL) appear after the periodic rebuild in
+ * UserSearchRefreshJob. Until the first load, searches fall back to a
+ * bounded LIKE query.
+ *
+ * The index holds ids, usernames and email local parts only; the hits of a
+ * search are turned into DTOs through UserIdentityCache, which loads the
+ * uncached ones in one query. Hits whose row is gone are dropped from the
+ * results and from the index. A query containing @ is an exact email
+ * lookup, since domains are not indexed.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Value("${app.search.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.search.load-batch-size:10000}")
+    private int loadBatchSize = 10_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+
+    // Guarded by lock
+    private UserNameIndex index;
+    // Users saved (or, as null, deleted) while a rebuild is loading; replayed onto the new index.
+    // Guarded by lock
+    private Map<Long, UserSnapshot> pending;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<UserDTO> search(String query, int limit) {
+        int size = limit < 1 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        if (!ready) {
+            String q = query.trim();
+            return userRepository.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(q, q, Limit.of(size))
+                    .stream().map(UserMapper::toDTO).toList();
+        }
+
+        if (query.contains("@")) {
+            return userIdentityCache.findByEmail(query.trim()).map(UserSnapshot::toDTO).stream().toList();
+        }
+
+        List<Long> hits;
+        lock.readLock().lock();
+        try {
+            hits = index.search(query, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, UserSnapshot> users = userIdentityCache.findAllById(hits);
+        List<UserDTO> results = new ArrayList<>(hits.size());
+        for (Long id : hits) {
+            UserSnapshot user = users.get(id);
+            if (user != null) {
+                results.add(user.toDTO());
+            } else {
+                remove(id);
+            }
+        }
+        return results;
+    }
+
+    // Called after a user row is created or changed
+    public void put(UserSnapshot user) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.put(user.getId(), user);
+            }
+            if (index != null) {
+                index.put(user.getId(), user.getUsername(), user.getEmail());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called after a user row is deleted
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.put(id, null);
+            }
+            if (index != null) {
+                index.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                pending = new LinkedHashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            UserNameIndex fresh;
+            try {
+                fresh = load();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                pending.forEach((id, user) -> {
+                    if (user == null) {
+                        fresh.remove(id);
+                    } else {
+                        fresh.put(id, user.getUsername(), user.getEmail());
+                    }
+                });
+                pending = null;
+                index = fresh;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("User search index built: {} users in {} ms",
+                    fresh.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    // Keyset batches on the primary key; only the searched columns are read
+    private UserNameIndex load() {
+        UserNameIndex fresh = new UserNameIndex();
+        long[] lastId = { 0 };
+        int read;
+        do {
+            int[] count = { 0 };
+            jdbcTemplate.query("select id, username, email from users "
+                    + "where id > ? order by id limit ?",
+                    rs -> {
+                        lastId[0] = rs.getLong(1);
+                        fresh.put(lastId[0], rs.getString(2), rs.getString(3));
+                        count[0]++;
+                    },
+                    lastId[0], loadBatchSize);
+            read = count[0];
+        } while (read == loadBatchSize);
+        return fresh;
+    }
+}
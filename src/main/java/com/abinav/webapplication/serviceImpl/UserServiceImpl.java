@@ -8,6 +8,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.abinav.webapplication.dto.UserDTO;
+import com.abinav.webapplication.dto.UserSnapshot;
 import com.abinav.webapplication.model.Users;
 import com.abinav.webapplication.repository.UserRepository;
 import com.abinav.webapplication.service.UserService;
@@ -18,10 +20,20 @@ public class UserServiceImpl implements UserService {
 	@Autowired
 	private UserRepository userRepository;
 
+	@Autowired
+	private UserIdentityCache userIdentityCache;
+
+	@Autowired
+	private UserSearchIndex userSearchIndex;
+
+	@Autowired
+	private VersionStamps versionStamps;
+
 	@Override
 	public Users createUser(Users user) {
-
-		return userRepository.save(user);
+		Users saved = userRepository.save(user);
+		userSearchIndex.put(UserSnapshot.of(saved));
+		return saved;
 	}
 
 	@Override
@@ -46,12 +58,19 @@ public class UserServiceImpl implements UserService {
 		return userRepository.findById(id);
 	}
 
+	// Covers profile photo changes too; cached snapshots must not outlive the row
 	public Users updateUser(Users user) {
-		return userRepository.save(user);
+		Users saved = userRepository.save(user);
+		userIdentityCache.evict(saved);
+		userSearchIndex.put(UserSnapshot.of(saved));
+		// Author names and photos appear on every post; drop all cached post ETags
+		versionStamps.allPostsChanged();
+		return saved;
 	}
 
-	public java.util.List<Users> searchUsers(String query) {
-		return userRepository.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query);
+	// Ranked, bounded results from the in-memory index; no LIKE scan
+	public java.util.List<UserDTO> searchUsers(String query, int limit) {
+		return userSearchIndex.search(query, limit);
 	}
 
 }
\ No newline at end of file
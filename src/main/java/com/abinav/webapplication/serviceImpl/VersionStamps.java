@@ -0,0 +1,154 @@
+package com.abinav.webapplication.serviceImpl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.abinav.webapplication.event.FollowChangedEvent;
+import com.abinav.webapplication.event.PostChangedEvent;
+import com.abinav.webapplication.event.PostCountersChangedEvent;
+import com.abinav.webapplication.event.PostCreatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Version stamps behind the ETags of the feed, single post and user posts
+ * reads, so PostController can answer If-None-Match with a 304 without
+ * loading or serializing anything.
+ *
+ * Every change draws a tick from one clock and records it against what it
+ * affects: a post (edit, delete, like or comment counts), the whole feed
+ * (any post change), or a viewer (their likes and follows, which drive
+ * likedByCurrentUser and followingAuthor). An ETag is the stamps a body
+ * depends on plus the viewer id, so it differs whenever the body could.
+ *
+ * Stamps are moved after commit, never before: a request that reads a stamp
+ * and then the database can only pair an old stamp with new data, which
+ * costs one extra 200 later, not a stale 304.
+ *
+ * Per-post and per-viewer stamps are bounded; an evicted entry raises a
+ * floor that every lookup is compared against, so its stamp can only go up.
+ * Stamps live in this instance only, so ETags also carry a random instance
+ * id and an epoch (app.etags.epoch-ms) that bounds how long a change made
+ * through another instance can go unnoticed here.
+ */
+@Component
+public class VersionStamps {
+
+    @Value("${app.etags.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.etags.max-entries:100000}")
+    private long maxEntries = 100_000;
+
+    @Value("${app.etags.epoch-ms:30000}")
+    private long epochMillis = 30_000;
+
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong feed = new AtomicLong();
+    private final AtomicLong postFloor = new AtomicLong();
+    private final AtomicLong viewerFloor = new AtomicLong();
+
+    private Cache<Long, Long> posts;
+    private Cache<Long, Long> viewers;
+
+    @PostConstruct
+    public void init() {
+        posts = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .<Long, Long>evictionListener((id, stamp, cause) -> raise(postFloor, stamp))
+                .build();
+        viewers = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .<Long, Long>evictionListener((id, stamp, cause) -> raise(viewerFloor, stamp))
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /* ===== ETags ===== */
+
+    // One page of the global feed as seen by the viewer (null when anonymous)
+    public String feedETag(Long viewerId) {
+        return etag("f", feed.get() + "." + viewer(viewerId));
+    }
+
+    public String postETag(Long postId, Long viewerId) {
+        return etag("p", postId + "." + stamp(posts, postFloor, postId) + "." + viewer(viewerId));
+    }
+
+    // A user's own posts carry no viewer state, but any post may be on the page
+    public String userPostsETag() {
+        return etag("u", Long.toString(feed.get()));
+    }
+
+    private String etag(String kind, String stamps) {
+        long epoch = System.currentTimeMillis() / Math.max(1, epochMillis);
+        return "\"" + kind + "." + instance + "." + epoch + "." + stamps + "\"";
+    }
+
+    private String viewer(Long viewerId) {
+        return viewerId == null ? "0.0" : viewerId + "." + stamp(viewers, viewerFloor, viewerId);
+    }
+
+    private static long stamp(Cache<Long, Long> stamps, AtomicLong floor, Long id) {
+        Long stamp = stamps.getIfPresent(id);
+        return Math.max(stamp != null ? stamp : 0, floor.get());
+    }
+
+    /* ===== Changes ===== */
+
+    public void postChanged(Long postId) {
+        long tick = clock.incrementAndGet();
+        posts.put(postId, tick);
+        raise(feed, tick);
+    }
+
+    // Something every post body can show moved, e.g. an author's name or photo
+    public void allPostsChanged() {
+        long tick = clock.incrementAndGet();
+        raise(postFloor, tick);
+        raise(feed, tick);
+    }
+
+    public void viewerChanged(Long userId) {
+        viewers.put(userId, clock.incrementAndGet());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        postChanged(event.getPostId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        postChanged(event.getPostId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostCountersChanged(PostCountersChangedEvent event) {
+        postChanged(event.getPostId());
+        if (event.getUserId() != null) {
+            viewerChanged(event.getUserId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        viewerChanged(event.getFollowerId());
+    }
+
+    private static void raise(AtomicLong stamp, long tick) {
+        stamp.accumulateAndGet(tick, Math::max);
+    }
+}
@@ -0,0 +1,249 @@
+package com.abinav.webapplication.utility;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compact adjacency index of the follow graph, keyed by primitive user ids.
+ *
+ * One open-addressing table maps a user id to a slot; per slot we keep the
+ * sorted ids the user follows (a long[] with some slack) and the number of
+ * followers. Follower lists are deliberately not stored: nothing needs to
+ * enumerate them from memory, and a celebrity's list would be the one
+ * array rewritten on every follow. Membership is a binary search, counts
+ * are a single lookup, and an edge costs about 8 bytes.
+ *
+ * Not thread-safe; SocialGraphIndex guards it with a read/write lock. User
+ * ids must be positive (0 marks a free slot).
+ */
+public final class FollowGraph {
+
+    private static final long FREE = 0L;
+    private static final long[] NONE = new long[0];
+
+    private long[] keys;
+    private long[][] following;
+    private int[] followingSize;
+    private int[] followerCount;
+    private int mask;
+    private int nodes;
+    private long edges;
+
+    public FollowGraph() {
+        this(1024);
+    }
+
+    public FollowGraph(int expectedNodes) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedNodes * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /* ===== Queries ===== */
+
+    public boolean contains(long follower, long followee) {
+        int slot = find(follower);
+        return slot >= 0 && Arrays.binarySearch(following[slot], 0, followingSize[slot], followee) >= 0;
+    }
+
+    // Which of the candidates does the follower follow?
+    public Set<Long> followedAmong(long follower, Collection<Long> candidates) {
+        Set<Long> result = new HashSet<>();
+        int slot = find(follower);
+        if (slot < 0 || followingSize[slot] == 0) {
+            return result;
+        }
+        for (Long candidate : candidates) {
+            if (Arrays.binarySearch(following[slot], 0, followingSize[slot], candidate) >= 0) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    public int followingCount(long userId) {
+        int slot = find(userId);
+        return slot < 0 ? 0 : followingSize[slot];
+    }
+
+    public int followerCount(long userId) {
+        int slot = find(userId);
+        return slot < 0 ? 0 : followerCount[slot];
+    }
+
+    public int nodeCount() {
+        return nodes;
+    }
+
+    public long edgeCount() {
+        return edges;
+    }
+
+    /* ===== Updates ===== */
+
+    // Returns false if the edge was already present
+    public boolean add(long follower, long followee) {
+        if (follower <= 0 || followee <= 0) {
+            throw new IllegalArgumentException("User ids must be positive");
+        }
+        // Room for both endpoints up front so neither slot moves under a resize
+        ensureCapacity(nodes + 2);
+        int from = slotFor(follower);
+        int size = followingSize[from];
+        long[] list = following[from];
+
+        // Bulk loads arrive sorted, so appending is the common case
+        int pos;
+        if (size == 0 || list[size - 1] < followee) {
+            pos = size;
+        } else {
+            pos = Arrays.binarySearch(list, 0, size, followee);
+            if (pos >= 0) {
+                return false;
+            }
+            pos = -pos - 1;
+        }
+
+        if (size == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, size + (size >> 1)));
+            following[from] = list;
+        }
+        System.arraycopy(list, pos, list, pos + 1, size - pos);
+        list[pos] = followee;
+        followingSize[from] = size + 1;
+
+        followerCount[slotFor(followee)]++;
+        edges++;
+        return true;
+    }
+
+    // Returns false if there was no such edge
+    public boolean remove(long follower, long followee) {
+        int from = find(follower);
+        if (from < 0) {
+            return false;
+        }
+        int size = followingSize[from];
+        long[] list = following[from];
+        int pos = Arrays.binarySearch(list, 0, size, followee);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(list, pos + 1, list, pos, size - pos - 1);
+        followingSize[from] = size - 1;
+
+        int to = find(followee);
+        if (to >= 0 && followerCount[to] > 0) {
+            followerCount[to]--;
+        }
+        edges--;
+        return true;
+    }
+
+    // Drops the growth slack left by a bulk load
+    public void compact() {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE && following[i].length != followingSize[i]) {
+                following[i] = followingSize[i] == 0 ? NONE : Arrays.copyOf(following[i], followingSize[i]);
+            }
+        }
+    }
+
+    /**
+     * Approximate retained heap in bytes, assuming a 64-bit JVM with
+     * compressed oops (16-byte array headers, 4-byte references).
+     */
+    public long estimatedBytes() {
+        int capacity = keys.length;
+        long bytes = arrayBytes(8L * capacity)       // keys
+                + arrayBytes(4L * capacity)          // following (references)
+                + 2 * arrayBytes(4L * capacity);     // followingSize, followerCount
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != FREE && following[i] != NONE) {
+                bytes += arrayBytes(8L * following[i].length);
+            }
+        }
+        return bytes;
+    }
+
+    /* ===== Hash table ===== */
+
+    private int find(long key) {
+        if (key <= 0) {
+            return -1;
+        }
+        int slot = hash(key) & mask;
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                return slot;
+            }
+            if (k == FREE) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int slotFor(long key) {
+        int slot = hash(key) & mask;
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                return slot;
+            }
+            if (k == FREE) {
+                keys[slot] = key;
+                following[slot] = NONE;
+                nodes++;
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // Keep the load factor at or below 1/2
+    private void ensureCapacity(int requiredNodes) {
+        if ((long) requiredNodes * 2 <= keys.length) {
+            return;
+        }
+        long[] oldKeys = keys;
+        long[][] oldFollowing = following;
+        int[] oldFollowingSize = followingSize;
+        int[] oldFollowerCount = followerCount;
+
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == FREE) {
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & mask;
+            while (keys[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            following[slot] = oldFollowing[i];
+            followingSize[slot] = oldFollowingSize[i];
+            followerCount[slot] = oldFollowerCount[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        following = new long[capacity][];
+        followingSize = new int[capacity];
+        followerCount = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    // Fibonacci hashing; sequential ids would otherwise cluster
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static long arrayBytes(long payload) {
+        return (16 + payload + 7) & ~7L;
+    }
+}
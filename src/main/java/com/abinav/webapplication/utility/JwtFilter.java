@@ -1,15 +1,27 @@
 package com.abinav.webapplication.utility;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.abinav.webapplication.logic.UserLogic;
+import com.abinav.webapplication.exception.AuthenticationException;
+import com.abinav.webapplication.dto.UserSnapshot;
+import com.abinav.webapplication.model.AuthenticatedUser;
+import com.abinav.webapplication.serviceImpl.UserIdentityCache;
+
+import io.jsonwebtoken.Claims;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,7 +35,20 @@ public class JwtFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserLogic userLogic;
+    private UserIdentityCache userIdentityCache;
+
+    private static final List<GrantedAuthority> ADMIN = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+    // Accounts allowed on the actuator endpoints (SecurityConfig)
+    private Set<String> adminEmails = Set.of();
+
+    @Value("${app.admin.emails:}")
+    void setAdminEmails(List<String> emails) {
+        adminEmails = emails.stream()
+                .map(email -> email.trim().toLowerCase(Locale.ROOT))
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -52,16 +77,18 @@ public class JwtFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
 
             try {
-                String email = jwtUtil.extractUsername(token);
+                // One verification per request (or none for recently seen tokens);
+                // throws for forged, malformed or expired tokens
+                Claims claims = jwtUtil.parseClaims(token);
+                String email = claims.getSubject();
 
                 if (email != null &&
-                        SecurityContextHolder.getContext().getAuthentication() == null &&
-                        jwtUtil.validateToken(token)) {
+                        SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                    UserDetails userDetails = userLogic.loadUserByUsername(email);
+                    AuthenticatedUser principal = toPrincipal(claims, email);
 
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                            principal, null, authoritiesOf(email));
 
                     authToken.setDetails(request);
                     SecurityContextHolder.getContext()
@@ -79,4 +106,20 @@ public class JwtFilter extends OncePerRequestFilter {
 
         chain.doFilter(request, response);
     }
+
+    private List<GrantedAuthority> authoritiesOf(String email) {
+        return adminEmails.contains(email.toLowerCase(Locale.ROOT)) ? ADMIN : Collections.emptyList();
+    }
+
+    private AuthenticatedUser toPrincipal(Claims claims, String email) {
+        Long userId = claims.get(JwtUtil.CLAIM_USER_ID, Long.class);
+        if (userId != null) {
+            return new AuthenticatedUser(userId, email, claims.get(JwtUtil.CLAIM_USERNAME, String.class));
+        }
+
+        // Tokens issued before the id claim existed: resolve the user once
+        UserSnapshot user = userIdentityCache.findByEmail(email)
+                .orElseThrow(() -> new AuthenticationException("User not found"));
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getUsername());
+    }
 }
@@ -0,0 +1,164 @@
+package com.abinav.webapplication.utility;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of like toggles accepted by the write-behind pipeline
+ * but not yet written to the database.
+ *
+ * The journal is a directory of numbered segment files with one line per
+ * toggle ("+ userId postId" or "- userId postId"). Appends go to the active
+ * segment through the OS page cache, so they survive a process crash; a
+ * segment is forced to disk when it is rotated out for a flush, and
+ * deleted once that flush has committed. Segments numbered below
+ * getFirstSeq() were left by a previous run and are replayed on startup.
+ *
+ * Not thread-safe; LikeWriteBehind serializes access.
+ */
+public final class LikeJournal {
+
+    private static final Pattern SEGMENT = Pattern.compile("segment-(\\d+)\\.log");
+
+    public record Record(long userId, long postId, boolean liked) {
+    }
+
+    private final Path dir;
+    private final long firstSeq;
+    private long activeSeq;
+    private FileChannel active;
+
+    public LikeJournal(Path dir) {
+        this.dir = dir;
+        try {
+            Files.createDirectories(dir);
+            long max = 0;
+            for (Path segment : segments()) {
+                max = Math.max(max, seqOf(segment));
+            }
+            firstSeq = max + 1;
+            activeSeq = firstSeq;
+            active = open(activeSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open like journal in " + dir, e);
+        }
+    }
+
+    public void append(long userId, long postId, boolean liked) {
+        String line = (liked ? "+ " : "- ") + userId + " " + postId + "\n";
+        ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII));
+        try {
+            while (bytes.hasRemaining()) {
+                active.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to like journal", e);
+        }
+    }
+
+    // First segment written by this run; anything below it is from an earlier one
+    public long getFirstSeq() {
+        return firstSeq;
+    }
+
+    /**
+     * Forces the active segment to disk and starts a new one. Returns the
+     * sequence number of the segment that was closed; delete(from, seq)
+     * removes it once its toggles are in the database.
+     */
+    public long rotate() {
+        long closed = activeSeq;
+        try {
+            active.force(false);
+            active.close();
+            activeSeq++;
+            active = open(activeSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate like journal", e);
+        }
+        return closed;
+    }
+
+    // Deletes segments numbered fromSeq through toSeq
+    public void delete(long fromSeq, long toSeq) {
+        try {
+            for (Path segment : segments()) {
+                long seq = seqOf(segment);
+                if (seq >= fromSeq && seq <= toSeq) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete like journal segments", e);
+        }
+    }
+
+    /**
+     * Records from segments left by earlier runs, oldest first. They may or
+     * may not have reached the database before the process stopped.
+     */
+    public List<Record> readPreviousRuns() {
+        List<Record> records = new ArrayList<>();
+        try {
+            List<Path> previous = new ArrayList<>();
+            for (Path segment : segments()) {
+                if (seqOf(segment) < firstSeq) {
+                    previous.add(segment);
+                }
+            }
+            previous.sort((a, b) -> Long.compare(seqOf(a), seqOf(b)));
+            for (Path segment : previous) {
+                for (String line : Files.readAllLines(segment, StandardCharsets.US_ASCII)) {
+                    String[] parts = line.trim().split(" ");
+                    // A torn final line from a crash mid-write is skipped
+                    if (parts.length == 3 && (parts[0].equals("+") || parts[0].equals("-"))) {
+                        try {
+                            records.add(new Record(Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                                    parts[0].equals("+")));
+                        } catch (NumberFormatException ignored) {
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read like journal", e);
+        }
+        return records;
+    }
+
+    public void close() {
+        try {
+            active.force(false);
+            active.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close like journal", e);
+        }
+    }
+
+    private FileChannel open(long seq) throws IOException {
+        return FileChannel.open(dir.resolve(String.format("segment-%010d.log", seq)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> SEGMENT.matcher(p.getFileName().toString()).matches()).toList();
+        }
+    }
+
+    private static long seqOf(Path segment) {
+        Matcher m = SEGMENT.matcher(segment.getFileName().toString());
+        return m.matches() ? Long.parseLong(m.group(1)) : -1;
+    }
+}
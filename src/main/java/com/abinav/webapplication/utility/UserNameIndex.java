@@ -0,0 +1,220 @@
+package com.abinav.webapplication.utility;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory search index over usernames and the local part of emails (the
+ * text before the @). Only ids and these two strings are kept; callers
+ * look up display fields for the ids a search returns. Domains are left
+ * out: every address shares a handful of them, so their trigrams ("com",
+ * "gma", "ail") would match nearly every user.
+ *
+ * Two structures per field, both on the lower-cased value:
+ * - a sorted map of "value\0id" keys, so a prefix is a range scan in
+ *   lexicographic order (as-you-type queries, and exact matches first);
+ * - trigram postings, so a substring query of three or more characters
+ *   only verifies users that contain every trigram of the query. If even
+ *   the rarest trigram of a query is shared by more than
+ *   MAX_SUBSTRING_CANDIDATES users, the substring tiers are skipped and
+ *   only prefix matches are returned.
+ * Queries of one or two characters match prefixes only.
+ *
+ * Results are ranked by tier (exact username, username prefix, email
+ * prefix, username substring, email substring), then alphabetically on the
+ * matched field, then by id; so the first `limit` entries of a prefix range
+ * are exactly the best hits of that tier.
+ *
+ * Not thread-safe; UserSearchIndex guards it with a read/write lock.
+ */
+public final class UserNameIndex {
+
+    private static final char SEP = '\0';
+
+    // Upper bound on users verified for one substring query
+    static final int MAX_SUBSTRING_CANDIDATES = 10_000;
+
+    private static final int EXACT = 0;
+    private static final int USERNAME_PREFIX = 1;
+    private static final int EMAIL_PREFIX = 2;
+    private static final int USERNAME_SUBSTRING = 3;
+    private static final int EMAIL_SUBSTRING = 4;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeMap<String, Long> usernames = new TreeMap<>();
+    private final TreeMap<String, Long> emails = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+
+    private static final class Entry {
+        final long id;
+        final String username;
+        final String email;
+
+        Entry(long id, String username, String email) {
+            this.id = id;
+            this.username = normalize(username);
+            this.email = localPart(normalize(email));
+        }
+    }
+
+    private record Hit(Entry entry, int rank) {
+        String matched() {
+            return rank == EMAIL_PREFIX || rank == EMAIL_SUBSTRING ? entry.email : entry.username;
+        }
+    }
+
+    private static final Comparator<Hit> RANKING = Comparator.<Hit>comparingInt(Hit::rank)
+            .thenComparing(Hit::matched)
+            .thenComparingLong(h -> h.entry().id);
+
+    public int size() {
+        return entries.size();
+    }
+
+    /* ===== Updates ===== */
+
+    // Adds or replaces the user
+    public void put(long id, String username, String email) {
+        remove(id);
+        Entry entry = new Entry(id, username, email);
+        entries.put(id, entry);
+        usernames.put(key(entry.username, id), id);
+        emails.put(key(entry.email, id), id);
+        for (String gram : trigramsOf(entry)) {
+            trigrams.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    public void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        usernames.remove(key(entry.username, id));
+        emails.remove(key(entry.email, id));
+        for (String gram : trigramsOf(entry)) {
+            Set<Long> postings = trigrams.get(gram);
+            if (postings != null) {
+                postings.remove(id);
+                if (postings.isEmpty()) {
+                    trigrams.remove(gram);
+                }
+            }
+        }
+    }
+
+    /* ===== Search ===== */
+
+    // Ids of the best matches, best first
+    public List<Long> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        Map<Long, Hit> hits = new HashMap<>();
+
+        // Prefix ranges come out in lexicographic order, so the first `limit`
+        // of each are also the best-ranked within their tier
+        collectPrefix(usernames, q, limit, hits, true);
+        collectPrefix(emails, q, limit, hits, false);
+
+        if (hits.size() < limit && q.length() >= 3) {
+            for (Long id : substringCandidates(q)) {
+                if (hits.containsKey(id)) {
+                    continue;
+                }
+                Entry entry = entries.get(id);
+                if (entry.username.contains(q)) {
+                    hits.put(id, new Hit(entry, USERNAME_SUBSTRING));
+                } else if (entry.email.contains(q)) {
+                    hits.put(id, new Hit(entry, EMAIL_SUBSTRING));
+                }
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(hits.values());
+        ranked.sort(RANKING);
+        List<Long> results = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            results.add(ranked.get(i).entry().id);
+        }
+        return results;
+    }
+
+    private void collectPrefix(TreeMap<String, Long> field, String prefix, int limit, Map<Long, Hit> hits,
+            boolean username) {
+        int taken = 0;
+        for (Long id : field.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            if (taken == limit) {
+                break;
+            }
+            Entry entry = entries.get(id);
+            int rank = username
+                    ? (entry.username.equals(prefix) ? EXACT : USERNAME_PREFIX)
+                    : EMAIL_PREFIX;
+            Hit existing = hits.get(id);
+            if (existing == null || existing.rank() > rank) {
+                hits.put(id, new Hit(entry, rank));
+            }
+            taken++;
+        }
+    }
+
+    // Users containing every trigram of the query, starting from the rarest
+    private Set<Long> substringCandidates(String q) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Set<Long> ids = trigrams.get(q.substring(i, i + 3));
+            if (ids == null) {
+                return Set.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        if (postings.get(0).size() > MAX_SUBSTRING_CANDIDATES) {
+            return Set.of();
+        }
+
+        Set<Long> candidates = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postings.get(i));
+        }
+        return candidates;
+    }
+
+    private static Set<String> trigramsOf(Entry entry) {
+        Set<String> grams = new HashSet<>();
+        addTrigrams(entry.username, grams);
+        addTrigrams(entry.email, grams);
+        return grams;
+    }
+
+    private static void addTrigrams(String value, Set<String> grams) {
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            grams.add(value.substring(i, i + 3));
+        }
+    }
+
+    // Fixed-width id so equal values sort by numeric id
+    private static String key(String value, long id) {
+        String digits = Long.toString(id);
+        return value + SEP + "0".repeat(19 - digits.length()) + digits;
+    }
+
+    private static String localPart(String email) {
+        int at = email.indexOf('@');
+        return at < 0 ? email : email.substring(0, at);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
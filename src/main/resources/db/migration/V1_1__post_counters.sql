@@ -0,0 +1,8 @@
+-- Denormalized like/comment counters on posts, maintained by the like and
+-- comment services on every write and repaired by CounterReconciliationJob,
+-- so feed pages need no COUNT(*). Runs before V2, which recounts likes.
+ALTER TABLE posts ADD COLUMN like_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE posts ADD COLUMN comment_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE posts p SET like_count = (SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id);
+UPDATE posts p SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id);
@@ -0,0 +1,33 @@
+-- Composite indexes and unique constraints for the social graph.
+-- Keep in sync with the @Table(indexes/uniqueConstraints) on the entities;
+-- SchemaIndexValidator refuses to start if any of them is missing.
+
+-- Duplicate likes/follows could be inserted before the unique constraints
+-- existed; keep the oldest row of each pair. The derived table is required
+-- by MySQL, which cannot select from the table it deletes from.
+DELETE FROM likes
+WHERE id NOT IN (
+    SELECT keep_id FROM (SELECT MIN(id) AS keep_id FROM likes GROUP BY user_id, post_id) keep
+);
+
+DELETE FROM follows
+WHERE id NOT IN (
+    SELECT keep_id FROM (SELECT MIN(id) AS keep_id FROM follows GROUP BY follower_id, following_id) keep
+);
+
+-- Counters may have counted the removed duplicates
+UPDATE posts SET like_count = (SELECT COUNT(*) FROM likes l WHERE l.post_id = posts.id);
+
+ALTER TABLE likes ADD CONSTRAINT uk_likes_user_post UNIQUE (user_id, post_id);
+CREATE INDEX idx_likes_post ON likes (post_id, user_id);
+
+ALTER TABLE follows ADD CONSTRAINT uk_follows_follower_following UNIQUE (follower_id, following_id);
+CREATE INDEX idx_follows_following ON follows (following_id, follower_id);
+
+-- Feed and profile pages walk these in (created_at, id) order
+CREATE INDEX idx_posts_created ON posts (created_at, id);
+CREATE INDEX idx_posts_user_created ON posts (user_id, created_at, id);
+
+CREATE INDEX idx_comments_post_created ON comments (post_id, created_at);
+
+CREATE INDEX idx_users_email ON users (email);
@@ -0,0 +1,15 @@
+-- Materialized home timelines: one row per (follower, post), written by the
+-- fan-out worker when a post is created. created_at is the post's, so a
+-- timeline page is a single range scan on idx_timeline_user_created.
+CREATE TABLE timeline_entries (
+    user_id BIGINT NOT NULL,
+    post_id BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_id, post_id),
+    CONSTRAINT fk_timeline_post FOREIGN KEY (post_id) REFERENCES posts (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_timeline_user_created ON timeline_entries (user_id, created_at, post_id);
+-- Unfollow removes one author's entries from one timeline
+CREATE INDEX idx_timeline_user_author ON timeline_entries (user_id, author_id);
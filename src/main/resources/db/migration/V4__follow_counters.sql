@@ -0,0 +1,19 @@
+-- Denormalized follower/following counters on users, maintained by
+-- FollowServiceImpl on every follow/unfollow and repaired by
+-- CounterReconciliationJob, so list totals and profiles need no COUNT(*).
+ALTER TABLE users ADD COLUMN follower_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN following_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE users u SET follower_count = (SELECT COUNT(*) FROM follows f WHERE f.following_id = u.id);
+UPDATE users u SET following_count = (SELECT COUNT(*) FROM follows f WHERE f.follower_id = u.id);
+
+-- Celebrity detection for the timeline is a range scan on the counter
+CREATE INDEX idx_users_follower_count ON users (follower_count);
+
+-- Follower/following pages are keyset-paginated on (created_at, id).
+-- The app has always set created_at; rows written outside it sort last.
+UPDATE follows SET created_at = '1970-01-01 00:00:00' WHERE created_at IS NULL;
+ALTER TABLE follows MODIFY created_at DATETIME(6) NOT NULL;
+
+CREATE INDEX idx_follows_following_created ON follows (following_id, created_at, id);
+CREATE INDEX idx_follows_follower_created ON follows (follower_id, created_at, id);
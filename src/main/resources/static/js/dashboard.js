@@ -4,9 +4,10 @@
 
 // Cache elements
 let cachedToken, cachedUserId, cachedUsername;
-let currentPage = 0;
+let nextCursor = null;
 let isLoading = false;
 let hasMorePosts = true;
+let counterStream = null;
 
 document.addEventListener("DOMContentLoaded", initDashboard);
 
@@ -29,7 +30,7 @@ async function initDashboard() {
     initSidebarButtons();
 
     // Load initial posts
-    const posts = await fetchPosts();
+    const posts = await fetchFeedPage();
     renderFeed(posts);
 
     // Initialize infinite scroll
@@ -37,6 +38,9 @@ async function initDashboard() {
 
     // Update user stats
     await updateUserStats();
+
+    // Keep like/comment/follower counts live instead of re-fetching
+    openCounterStream();
   } catch (e) {
     console.error("Dashboard error:", e);
     showToast("Failed to load dashboard", "error");
@@ -204,37 +208,67 @@ function redirectToLogin() {
 /* =========================
    API CALLS
    ========================= */
+async function fetchPostPage(limit, cursor) {
+  const params = new URLSearchParams({ size: limit });
+  if (cursor) params.set("cursor", cursor);
+
+  const res = await fetch(`/api/posts?${params}`, {
+    headers: { Authorization: `Bearer ${cachedToken}` }
+  });
+  if (!res.ok) throw new Error("Failed to load posts");
+  const body = await res.json();
+  return body.data || { posts: [], nextCursor: null };
+}
+
 async function fetchPosts(limit = 10) {
   try {
-    const res = await fetch(`/api/posts`, {
-      headers: { Authorization: `Bearer ${cachedToken}` }
-    });
-    if (!res.ok) throw new Error("Failed to load posts");
-    const body = await res.json();
-    return body.data || [];
+    const page = await fetchPostPage(limit);
+    return page.posts || [];
   } catch (e) {
     console.error("Fetch posts error:", e);
     return [];
   }
 }
 
+// Feed paging: remembers the cursor so the next call continues where this one stopped
+async function fetchFeedPage(limit = 10, cursor = null) {
+  try {
+    const page = await fetchPostPage(limit, cursor);
+    nextCursor = page.nextCursor || null;
+    return page.posts || [];
+  } catch (e) {
+    console.error("Fetch posts error:", e);
+    nextCursor = null;
+    return [];
+  }
+}
+
+// Counts come from the server, so they hold however many posts the user has
+async function fetchProfile(userId) {
+  const res = await fetch(`/api/users/${userId}/profile`, {
+    headers: { Authorization: `Bearer ${cachedToken}` }
+  });
+  if (!res.ok) throw new Error("Failed to load profile");
+  return res.json();
+}
+
+async function fetchUserPosts(email, limit = 30) {
+  const params = new URLSearchParams({ size: limit });
+  const res = await fetch(`/api/posts/user/${encodeURIComponent(email)}?${params}`, {
+    headers: { Authorization: `Bearer ${cachedToken}` }
+  });
+  if (!res.ok) throw new Error("Failed to load posts");
+  const body = await res.json();
+  return body.data?.posts || [];
+}
+
 async function updateUserStats() {
   try {
-    const [followers, following] = await Promise.all([
-      fetch(`/api/users/${cachedUserId}/followers/count`, {
-        headers: { Authorization: `Bearer ${cachedToken}` }
-      }).then(r => r.json()),
-      fetch(`/api/users/${cachedUserId}/following/count`, {
-        headers: { Authorization: `Bearer ${cachedToken}` }
-      }).then(r => r.json())
-    ]);
-
-    const posts = await fetchPosts(0, 100);
-    const userPosts = posts.filter(p => p.authorId === cachedUserId).length;
-
-    document.getElementById("postCount").textContent = userPosts;
-    document.getElementById("followerCount").textContent = followers.count || 0;
-    document.getElementById("followingCount").textContent = following.count || 0;
+    const profile = await fetchProfile(cachedUserId);
+
+    document.getElementById("postCount").textContent = profile.posts_count || 0;
+    document.getElementById("followerCount").textContent = profile.followers_count || 0;
+    document.getElementById("followingCount").textContent = profile.following_count || 0;
   } catch (e) {
     console.error("Update stats error:", e);
   }
@@ -252,16 +286,8 @@ async function showMyProfile() {
   dashboardContent.style.display = "none";
 
   try {
-    const posts = await fetchPosts(100);
-    const userPosts = posts.filter(p => p.authorId === cachedUserId);
-    const [followers, following] = await Promise.all([
-      fetch(`/api/users/${cachedUserId}/followers/count`, {
-        headers: { Authorization: `Bearer ${cachedToken}` }
-      }).then(r => r.json()),
-      fetch(`/api/users/${cachedUserId}/following/count`, {
-        headers: { Authorization: `Bearer ${cachedToken}` }
-      }).then(r => r.json())
-    ]);
+    const profile = await fetchProfile(cachedUserId);
+    const userPosts = await fetchUserPosts(profile.user.email);
 
     profileDiv.innerHTML = `
       <button onclick="hideProfile()" style="margin-bottom: 16px; padding: 8px 16px; border: none; background: #f0f0f0; border-radius: 6px; cursor: pointer; font-weight: 600;">← Back to Feed</button>
@@ -273,15 +299,15 @@ async function showMyProfile() {
             <p>User ID: ${cachedUserId}</p>
             <div class="profile-stats">
               <div>
-                <strong>${userPosts.length}</strong>
+                <strong>${profile.posts_count || 0}</strong>
                 <span>Posts</span>
               </div>
               <div>
-                <strong>${followers.count || 0}</strong>
+                <strong>${profile.followers_count || 0}</strong>
                 <span>Followers</span>
               </div>
               <div>
-                <strong>${following.count || 0}</strong>
+                <strong>${profile.following_count || 0}</strong>
                 <span>Following</span>
               </div>
             </div>
@@ -396,7 +422,8 @@ function renderFeed(posts, append = false) {
     }
   });
 
-  hasMorePosts = posts.length >= 10;
+  hasMorePosts = nextCursor !== null;
+  watchRenderedPosts();
 }
 
 function renderCaption(caption) {
@@ -435,8 +462,7 @@ async function loadMorePosts() {
   loader.style.display = "block";
 
   try {
-    currentPage++;
-    const posts = await fetchPosts();
+    const posts = await fetchFeedPage(10, nextCursor);
     renderFeed(posts, true);
   } catch (e) {
     console.error("Load more error:", e);
@@ -666,10 +692,14 @@ async function toggleLike(postId, btn) {
     });
 
     if (!res.ok) return;
+    const data = await res.json();
 
-    btn.classList.toggle("liked");
-    const countEl = btn.querySelector(".like-count");
-    countEl.textContent = +countEl.textContent + (liked ? -1 : 1);
+    btn.classList.toggle("liked", data.liked);
+    // A repeated tap is a no-op on the server; only move the count if a row changed
+    if (data.changed) {
+      const countEl = btn.querySelector(".like-count");
+      countEl.textContent = +countEl.textContent + (data.liked ? 1 : -1);
+    }
   } catch (e) {
     console.error("Like error:", e);
   }
@@ -687,17 +717,14 @@ function handleFileSelect(e) {
     return;
   }
 
-  const reader = new FileReader();
-  reader.onload = (e) => {
-    showPostModal(e.target.result);
-  };
-  reader.readAsDataURL(file);
+  // Preview from the file itself; the upload sends the raw bytes, not a base64 copy
+  showPostModal(URL.createObjectURL(file), file);
 
   // Reset input
   document.getElementById("sidebarPostInput").value = "";
 }
 
-function showPostModal(imageSrc) {
+function showPostModal(imageSrc, imageFile) {
   const existing = document.getElementById("post-modal");
   if (existing) existing.remove();
 
@@ -785,8 +812,12 @@ function showPostModal(imageSrc) {
   modal.appendChild(content);
   document.body.appendChild(modal);
 
-  document.getElementById("close-modal").onclick = () => modal.remove();
-  document.getElementById("cancel-btn").onclick = () => modal.remove();
+  const closeModal = () => {
+    URL.revokeObjectURL(imageSrc);
+    modal.remove();
+  };
+  document.getElementById("close-modal").onclick = closeModal;
+  document.getElementById("cancel-btn").onclick = closeModal;
   document.getElementById("post-btn").onclick = async () => {
     const caption = document.getElementById("caption-input").value.trim();
     if (!caption) {
@@ -799,26 +830,27 @@ function showPostModal(imageSrc) {
     postBtn.textContent = "Posting...";
 
     try {
+      const form = new FormData();
+      form.append("caption", caption);
+      form.append("image", imageFile);
+
+      // The browser sets the multipart Content-Type and boundary
       const res = await fetch("/api/posts", {
         method: "POST",
         headers: {
-          Authorization: `Bearer ${cachedToken}`,
-          "Content-Type": "application/json"
+          Authorization: `Bearer ${cachedToken}`
         },
-        body: JSON.stringify({
-          caption: caption,
-          imageUrl: imageSrc
-        })
+        body: form
       });
 
       if (!res.ok) throw new Error("Failed to create post");
 
       showToast("Post created successfully!", "success");
-      modal.remove();
+      closeModal();
 
       // Reload feed
       setTimeout(() => {
-        currentPage = 0;
+        nextCursor = null;
         loadInitialPosts();
       }, 500);
     } catch (e) {
@@ -833,12 +865,109 @@ function showPostModal(imageSrc) {
 }
 
 async function loadInitialPosts() {
-  const posts = await fetchPosts();
+  const posts = await fetchFeedPage();
   document.getElementById("feed").innerHTML = "";
   renderFeed(posts);
   await updateUserStats();
 }
 
+/* =========================
+   LIVE COUNTERS (Server-Sent Events)
+   ========================= */
+// Read with fetch rather than EventSource so the JWT can go in the header
+async function openCounterStream(retryDelay = 1000) {
+  const controller = new AbortController();
+  counterStream = { id: null, controller };
+
+  const params = new URLSearchParams({ posts: renderedPostIds().join(",") });
+  try {
+    const res = await fetch(`/api/stream/counters?${params}`, {
+      headers: { Authorization: `Bearer ${cachedToken}`, Accept: "text/event-stream" },
+      signal: controller.signal
+    });
+    if (res.status === 401 || res.status === 403) return;
+    if (!res.ok) throw new Error(`Counter stream refused: ${res.status}`);
+
+    const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = "";
+    retryDelay = 1000;
+    while (true) {
+      const { value, done } = await reader.read();
+      if (done) break;
+      buffer += value;
+      let end;
+      while ((end = buffer.indexOf("\n\n")) >= 0) {
+        handleStreamEvent(buffer.slice(0, end));
+        buffer = buffer.slice(end + 2);
+      }
+    }
+  } catch (e) {
+    if (controller.signal.aborted) return;
+    console.warn("Counter stream error:", e);
+  }
+
+  // Server timeout, restart or network loss: reconnect with backoff
+  setTimeout(() => openCounterStream(Math.min(retryDelay * 2, 30000)), retryDelay);
+}
+
+function handleStreamEvent(block) {
+  let name = "message";
+  const data = [];
+  block.split("\n").forEach(line => {
+    if (line.startsWith("event:")) name = line.slice(6).trim();
+    else if (line.startsWith("data:")) data.push(line.slice(5));
+  });
+  if (data.length === 0) return;
+  const payload = JSON.parse(data.join("\n"));
+
+  if (name === "ready") {
+    counterStream.id = payload.streamId;
+    watchRenderedPosts();
+  } else if (name === "counters") {
+    applyCounters(payload);
+  }
+}
+
+// Totals, not deltas: overwrite whatever the page currently shows
+function applyCounters(update) {
+  (update.posts || []).forEach(c => {
+    const postEl = document.querySelector(`[data-post-id="${c.id}"]`);
+    if (!postEl) return;
+    postEl.querySelector(".like-count").textContent = c.likeCount;
+    postEl.querySelector(".comment-count").textContent = c.commentCount;
+  });
+  if (update.user && update.user.id === cachedUserId) {
+    document.getElementById("followerCount").textContent = update.user.followerCount;
+    document.getElementById("followingCount").textContent = update.user.followingCount;
+  }
+}
+
+function renderedPostIds() {
+  return [...document.querySelectorAll("#feed .post")].map(el => +el.dataset.postId);
+}
+
+// Tell the server which posts are on screen now; batched with the next frame
+let watchScheduled = false;
+function watchRenderedPosts() {
+  if (!counterStream || !counterStream.id || watchScheduled) return;
+  watchScheduled = true;
+  requestAnimationFrame(async () => {
+    watchScheduled = false;
+    try {
+      await fetch(`/api/stream/counters/${counterStream.id}`, {
+        method: "PUT",
+        headers: {
+          Authorization: `Bearer ${cachedToken}`,
+          "Content-Type": "application/json"
+        },
+        body: JSON.stringify(renderedPostIds())
+      });
+    } catch (e) {
+      console.warn("Counter stream update error:", e);
+    }
+  });
+}
+
 /* =========================
    UTILS
    ========================= */
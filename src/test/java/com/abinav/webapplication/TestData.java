@@ -0,0 +1,79 @@
+package com.abinav.webapplication;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.CommentRepository;
+import com.abinav.webapplication.repository.FollowRepository;
+import com.abinav.webapplication.repository.LikeRepository;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.repository.TimelineRepository;
+import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.serviceImpl.UserIdentityCache;
+
+/**
+ * Shared rows for Spring tests: pull it in with @Import(TestData.class).
+ * Rows go straight through the repositories, behind the services' backs.
+ */
+@TestComponent
+public class TestData {
+
+	@Autowired
+	private UserIdentityCache userIdentityCache;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private LikeRepository likeRepository;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	@Autowired
+	private FollowRepository followRepository;
+
+	@Autowired
+	private TimelineRepository timelineRepository;
+
+	// Empties every table, children first, and forgets cached identities
+	public void reset() {
+		timelineRepository.deleteAll();
+		commentRepository.deleteAll();
+		likeRepository.deleteAll();
+		followRepository.deleteAll();
+		postRepository.deleteAll();
+		userRepository.deleteAll();
+		userIdentityCache.invalidateAll();
+	}
+
+	// name@example.com, password "secret"
+	public Users user(String name) {
+		return user(name, name + "@example.com");
+	}
+
+	public Users user(String name, String email) {
+		Users user = new Users();
+		user.setUsername(name);
+		user.setEmail(email);
+		user.setPassword("secret");
+		return userRepository.save(user);
+	}
+
+	// Removes the row behind the services' backs, as an admin or another instance would
+	public void deleteUser(Users user) {
+		userRepository.deleteById(user.getId());
+	}
+
+	public Post post(Users author, String caption) {
+		Post post = new Post();
+		post.setUser(author);
+		post.setCaption(caption);
+		return postRepository.save(post);
+	}
+}
@@ -0,0 +1,74 @@
+package com.abinav.webapplication.actuator;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.utility.JwtUtil;
+
+@SpringBootTest(properties = {
+		"management.endpoints.web.exposure.include=health,usercache,socialgraph",
+		"app.admin.emails=Ops@example.com"
+})
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class ActuatorEndpointTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private String userToken;
+	private String adminToken;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+
+		userToken = jwtUtil.generateToken(testData.user("member", "member@example.com"));
+		adminToken = jwtUtil.generateToken(testData.user("ops", "ops@example.com"));
+	}
+
+	@Test
+	void cacheAndGraphEndpointsNeedAnAdmin() throws Exception {
+		mockMvc.perform(get("/actuator/usercache")).andExpect(status().isForbidden());
+		mockMvc.perform(as(userToken, get("/actuator/usercache"))).andExpect(status().isForbidden());
+		mockMvc.perform(as(userToken, delete("/actuator/usercache"))).andExpect(status().isForbidden());
+		mockMvc.perform(as(userToken, post("/actuator/socialgraph"))).andExpect(status().isForbidden());
+
+		mockMvc.perform(as(adminToken, get("/actuator/usercache")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.usersById.weightBytes").exists());
+		mockMvc.perform(as(adminToken, delete("/actuator/usercache"))).andExpect(status().isNoContent());
+		mockMvc.perform(as(adminToken, post("/actuator/socialgraph")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rebuilt").value(true))
+				.andExpect(jsonPath("$.ready").value(true));
+	}
+
+	@Test
+	void healthStaysOpenToAnyAuthenticatedUser() throws Exception {
+		mockMvc.perform(as(userToken, get("/actuator/health"))).andExpect(status().isOk());
+	}
+
+	private MockHttpServletRequestBuilder as(String token, MockHttpServletRequestBuilder request) {
+		return request.header("Authorization", "Bearer " + token);
+	}
+}
@@ -0,0 +1,34 @@
+package com.abinav.webapplication.connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+// A database created by ddl-auto before Flyway: baselined at V1, then migrated
+class FlywayMigrationTests {
+
+	@Test
+	void baselinedDatabaseGetsCountersBackfilled() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:pre_flyway;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+		// The pre-Flyway schema is exactly V1
+		Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+		jdbc.update("insert into users (id, username, email) values (1, 'a', 'a@example.com'), (2, 'b', 'b@example.com')");
+		jdbc.update("insert into posts (id, user_id, caption) values (10, 1, 'hello')");
+		jdbc.update("insert into likes (user_id, post_id) values (1, 10), (2, 10), (2, 10)");
+		jdbc.update("insert into comments (user_id, post_id, content) values (2, 10, 'hi')");
+		jdbc.update("insert into follows (follower_id, following_id) values (2, 1)");
+
+		Flyway.configure().dataSource(dataSource).load().migrate();
+
+		// The duplicate like is gone and the counters match what is left
+		assertThat(jdbc.queryForObject("select like_count from posts where id = 10", Long.class)).isEqualTo(2);
+		assertThat(jdbc.queryForObject("select comment_count from posts where id = 10", Long.class)).isEqualTo(1);
+		assertThat(jdbc.queryForObject("select follower_count from users where id = 1", Long.class)).isEqualTo(1);
+	}
+}
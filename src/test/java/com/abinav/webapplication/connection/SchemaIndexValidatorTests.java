@@ -0,0 +1,36 @@
+package com.abinav.webapplication.connection;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class SchemaIndexValidatorTests {
+
+	@Autowired
+	private SchemaIndexValidator validator;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void migratedSchemaPassesValidation() {
+		assertThatCode(validator::validate).doesNotThrowAnyException();
+	}
+
+	@Test
+	void missingIndexFailsValidation() {
+		jdbcTemplate.execute("DROP INDEX idx_comments_post_created");
+		try {
+			assertThatThrownBy(validator::validate)
+					.isInstanceOf(IllegalStateException.class)
+					.hasMessageContaining("comments[post_id, created_at]");
+		} finally {
+			jdbcTemplate.execute("CREATE INDEX idx_comments_post_created ON comments (post_id, created_at)");
+		}
+	}
+}
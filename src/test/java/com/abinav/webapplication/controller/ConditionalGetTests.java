@@ -0,0 +1,153 @@
+package com.abinav.webapplication.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.serviceImpl.CommentServiceImpl;
+import com.abinav.webapplication.serviceImpl.FollowServiceImpl;
+import com.abinav.webapplication.serviceImpl.LikeServiceImpl;
+import com.abinav.webapplication.serviceImpl.PostServiceImpl;
+import com.abinav.webapplication.serviceImpl.VersionStamps;
+import com.abinav.webapplication.utility.JwtUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class ConditionalGetTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private VersionStamps versionStamps;
+
+	@Autowired
+	private LikeServiceImpl likeService;
+
+	@Autowired
+	private CommentServiceImpl commentService;
+
+	@Autowired
+	private FollowServiceImpl followService;
+
+	@Autowired
+	private PostServiceImpl postService;
+
+	private Users author;
+	private Users viewer;
+	private Post post;
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+
+		author = testData.user("etagauthor");
+		viewer = testData.user("etagviewer");
+		post = testData.post(author, "cache me");
+		// Seeded behind the services' backs, as a restore would be
+		versionStamps.allPostsChanged();
+		token = jwtUtil.generateToken(viewer);
+	}
+
+	@Test
+	void unchangedReadsAreAnsweredWithoutTouchingTheDatabase() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		for (MockHttpServletRequestBuilder read : new MockHttpServletRequestBuilder[] {
+				get("/api/posts"),
+				authed(get("/api/posts")),
+				authed(get("/api/posts/" + post.getId())),
+				get("/api/posts/user/" + author.getEmail()) }) {
+			String etag = fetch(read).getHeader(HttpHeaders.ETAG);
+			assertThat(etag).startsWith("\"");
+
+			statistics.clear();
+			mockMvc.perform(read.header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified());
+			assertThat(statistics.getPrepareStatementCount()).isZero();
+		}
+	}
+
+	@Test
+	void etagMovesWithCountersEditsAndTheViewersOwnState() throws Exception {
+		String anonymous = etag(get("/api/posts/" + post.getId()));
+		String mine = etag(authed(get("/api/posts/" + post.getId())));
+		String feed = etag(get("/api/posts"));
+		assertThat(mine).isNotEqualTo(anonymous);
+
+		// Someone else's comment changes the counts everyone sees
+		commentService.addComment(post.getId(), author.getId(), "first");
+		assertChanged(get("/api/posts/" + post.getId()), anonymous);
+		assertChanged(get("/api/posts"), feed);
+		anonymous = etag(get("/api/posts/" + post.getId()));
+		mine = etag(authed(get("/api/posts/" + post.getId())));
+
+		// The viewer following the author only changes the viewer's copies
+		followService.followUser(viewer.getId(), author.getId());
+		assertChanged(authed(get("/api/posts/" + post.getId())), mine);
+		assertNotModified(get("/api/posts/" + post.getId()), anonymous);
+		mine = etag(authed(get("/api/posts/" + post.getId())));
+
+		likeService.likePost(post.getId(), viewer.getId());
+		assertChanged(authed(get("/api/posts/" + post.getId())), mine);
+		mine = etag(authed(get("/api/posts/" + post.getId())));
+
+		Post edit = new Post();
+		edit.setCaption("edited");
+		postService.updatePost(post.getId(), edit);
+		String body = assertChanged(authed(get("/api/posts/" + post.getId())), mine);
+		assertThat(body).contains("edited").contains("\"likedByCurrentUser\":true");
+	}
+
+	private MockHttpServletResponse fetch(MockHttpServletRequestBuilder request) throws Exception {
+		return mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse();
+	}
+
+	private String etag(MockHttpServletRequestBuilder request) throws Exception {
+		return fetch(request).getHeader(HttpHeaders.ETAG);
+	}
+
+	private void assertNotModified(MockHttpServletRequestBuilder request, String etag) throws Exception {
+		mockMvc.perform(request.header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+	}
+
+	// A stale ETag gets the full body back with a new one
+	private String assertChanged(MockHttpServletRequestBuilder request, String etag) throws Exception {
+		MockHttpServletResponse response = fetch(request.header(HttpHeaders.IF_NONE_MATCH, etag));
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+		return response.getContentAsString();
+	}
+
+	private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+		return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+	}
+}
@@ -0,0 +1,151 @@
+package com.abinav.webapplication.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.serviceImpl.CommentServiceImpl;
+import com.abinav.webapplication.serviceImpl.CounterStreamService;
+import com.abinav.webapplication.serviceImpl.FollowServiceImpl;
+import com.abinav.webapplication.serviceImpl.LikeServiceImpl;
+import com.abinav.webapplication.utility.JwtUtil;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class CounterStreamControllerTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private CounterStreamService counterStreamService;
+
+	@Autowired
+	private LikeServiceImpl likeService;
+
+	@Autowired
+	private CommentServiceImpl commentService;
+
+	@Autowired
+	private FollowServiceImpl followService;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+	}
+
+	@Test
+	void streamsCoalescedCountersForWatchedPostsAndOwnFollowCounts() throws Exception {
+		Users viewer = testData.user("watcher");
+		Users fan = testData.user("streamfan");
+		Post watched = testData.post(viewer, "live counters");
+		Post other = testData.post(viewer, "live counters");
+		String token = jwtUtil.generateToken(viewer);
+
+		MockHttpServletResponse stream = mockMvc.perform(get("/api/stream/counters")
+				.param("posts", watched.getId().toString())
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(request().asyncStarted())
+				.andReturn().getResponse();
+		assertThat(stream.getContentAsString()).contains("event:ready");
+
+		likeService.likePost(watched.getId(), viewer.getId());
+		likeService.likePost(watched.getId(), fan.getId());
+		commentService.addComment(watched.getId(), fan.getId(), "first");
+		likeService.likePost(other.getId(), fan.getId());
+		counterStreamService.flush();
+
+		String body = awaitContent(stream, "\"likeCount\":2");
+		assertThat(body).contains("{\"id\":" + watched.getId() + ",\"likeCount\":2,\"commentCount\":1}");
+		// Three writes in one window are a single message, and unwatched posts are not sent
+		assertThat(body.split("event:counters", -1)).hasSize(2);
+		assertThat(body).doesNotContain("\"id\":" + other.getId() + ",");
+
+		// Watching the other post instead
+		String streamId = body.replaceAll("(?s).*\"streamId\":\"([^\"]+)\".*", "$1");
+		mockMvc.perform(put("/api/stream/counters/" + streamId)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + other.getId() + "]"))
+				.andExpect(status().isNoContent());
+		likeService.unlikePost(other.getId(), fan.getId());
+		followService.followUser(fan.getId(), viewer.getId());
+		counterStreamService.flush();
+
+		body = awaitContent(stream, "\"followerCount\":1");
+		assertThat(body).contains("{\"id\":" + other.getId() + ",\"likeCount\":0,\"commentCount\":0}");
+		assertThat(body).contains("\"user\":{\"id\":" + viewer.getId() + ",\"followerCount\":1,\"followingCount\":0}");
+
+		// Someone else cannot retarget the stream
+		mockMvc.perform(put("/api/stream/counters/" + streamId)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(fan))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[]"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void openingOneStreamTooManyClosesTheUsersOldest() throws Exception {
+		Users viewer = testData.user("tabhoarder");
+		String token = jwtUtil.generateToken(viewer);
+
+		String first = openStream(token);
+		String last = null;
+		for (int i = 0; i < 4; i++) {
+			last = openStream(token);
+		}
+
+		// Default cap is four streams per user
+		mockMvc.perform(put("/api/stream/counters/" + first)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[]"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(put("/api/stream/counters/" + last)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[]"))
+				.andExpect(status().isNoContent());
+	}
+
+	// Returns the new stream's id
+	private String openStream(String token) throws Exception {
+		String ready = mockMvc.perform(get("/api/stream/counters")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(request().asyncStarted())
+				.andReturn().getResponse().getContentAsString();
+		return ready.replaceAll("(?s).*\"streamId\":\"([^\"]+)\".*", "$1");
+	}
+
+	// Polls briefly in case the scheduled flush delivered it on its own thread
+	private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!response.getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		return response.getContentAsString();
+	}
+}
@@ -0,0 +1,154 @@
+package com.abinav.webapplication.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.serviceImpl.FeedStreamer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+// Small chunks, so five posts take several reads
+@SpringBootTest(properties = "app.feed.stream.chunk-size=2")
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class FeedStreamTests {
+
+	private static final int POSTS = 5;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private FeedStreamer feedStreamer;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+
+		Users author = testData.user("streamer");
+		for (int i = 0; i < POSTS; i++) {
+			testData.post(author, "post " + i);
+		}
+	}
+
+	@Test
+	void jsonStreamHasThePageShapeAndReadsOneQueryPerChunk() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		JsonNode body = objectMapper.readTree(stream(get("/api/posts/stream"), MediaType.APPLICATION_JSON));
+		assertThat(captions(body.get("posts"))).containsExactly("post 4", "post 3", "post 2", "post 1", "post 0");
+		assertThat(body.get("nextCursor").isNull()).isTrue();
+		// Chunks of 2, 2 and 1; no per-post lookups
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+	@Test
+	void ndjsonStreamEndsWithACursorWhenTheLimitCutsItShort() throws Exception {
+		String body = stream(get("/api/posts/stream").param("format", "ndjson").param("limit", "3"),
+				MediaType.APPLICATION_NDJSON);
+		List<String> lines = body.lines().toList();
+		assertThat(lines).hasSize(4);
+		assertThat(objectMapper.readTree(lines.get(0)).get("caption").asText()).isEqualTo("post 4");
+		String cursor = objectMapper.readTree(lines.get(3)).get("nextCursor").asText();
+
+		// Resuming from the cursor picks up where the limit stopped
+		String rest = stream(get("/api/posts/stream").param("format", "ndjson").param("cursor", cursor),
+				MediaType.APPLICATION_NDJSON);
+		assertThat(rest.lines().map(this::caption).toList()).containsExactly("post 1", "post 0");
+
+		mockMvc.perform(get("/api/posts/stream").param("format", "ndjson").param("cursor", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void chunksDoNotUseTheRequestsEntityManager() throws Exception {
+		// What open-in-view binds to the thread that writes the body
+		EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+		SessionImplementor session = requestEntityManager.unwrap(SessionImplementor.class);
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+
+		List<Boolean> connectionHeldAtFlush = new ArrayList<>();
+		ByteArrayOutputStream out = new ByteArrayOutputStream() {
+			@Override
+			public void flush() {
+				connectionHeldAtFlush.add(session.getJdbcCoordinator().getLogicalConnection().isPhysicallyConnected());
+			}
+		};
+		try {
+			feedStreamer.writeNdjson(out, null, POSTS, null);
+
+			assertThat(out.toString().lines()).hasSize(POSTS);
+			// No connection kept while the client reads, and nothing accumulated per chunk
+			assertThat(connectionHeldAtFlush).isNotEmpty().containsOnly(false);
+			assertThat(session.getPersistenceContext().getNumberOfManagedEntities()).isZero();
+			assertThat(TransactionSynchronizationManager.getResource(entityManagerFactory)).isNotNull();
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			requestEntityManager.close();
+		}
+	}
+
+	private String stream(MockHttpServletRequestBuilder request, MediaType type) throws Exception {
+		MvcResult started = mockMvc.perform(request)
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(type))
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private List<String> captions(JsonNode posts) {
+		return StreamSupport.stream(posts.spliterator(), false)
+				.map(post -> post.get("caption").asText())
+				.toList();
+	}
+
+	private String caption(String line) {
+		try {
+			return objectMapper.readTree(line).get("caption").asText();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
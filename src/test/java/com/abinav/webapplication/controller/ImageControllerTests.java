@@ -0,0 +1,335 @@
+package com.abinav.webapplication.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.dto.StoredImage;
+import com.abinav.webapplication.dto.UserSnapshot;
+import com.abinav.webapplication.exception.ValidationException;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.scheduler.ImageSweepJob;
+import com.abinav.webapplication.service.ImageStorageService;
+import com.abinav.webapplication.serviceImpl.AvatarService;
+import com.abinav.webapplication.utility.JwtUtil;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class ImageControllerTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ImageStorageService imageStorageService;
+
+	@Autowired
+	private AvatarService avatarService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ImageSweepJob imageSweepJob;
+
+	@Value("${app.images.dir}")
+	private String imageDir;
+
+	@Test
+	void servesImageWithEtagAndRanges() throws Exception {
+		byte[] png = png(1000);
+		StoredImage image = imageStorageService.store(new ByteArrayInputStream(png), 10_000);
+		String etag = "\"" + image.getHash() + "\"";
+
+		mockMvc.perform(get(image.getUrl()))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+				.andExpect(content().bytes(png));
+
+		mockMvc.perform(get(image.getUrl()).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(get(image.getUrl()).header(HttpHeaders.RANGE, "bytes=10-19"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/1000"))
+				.andExpect(content().bytes(Arrays.copyOfRange(png, 10, 20)));
+
+		mockMvc.perform(get(image.getUrl()).header(HttpHeaders.RANGE, "bytes=-5"))
+				.andExpect(status().isPartialContent())
+				.andExpect(content().bytes(Arrays.copyOfRange(png, 995, 1000)));
+
+		mockMvc.perform(get(image.getUrl()).header(HttpHeaders.RANGE, "bytes=5000-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable());
+
+		mockMvc.perform(get("/api/images/" + "0".repeat(64)))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void handsTheFileToTheConnectorWhenItOffersSendfile() throws Exception {
+		byte[] png = png(1000);
+		StoredImage image = imageStorageService.store(new ByteArrayInputStream(png), 10_000);
+		String file = imageStorageService.localFile(image.getHash()).orElseThrow().toString();
+
+		mockMvc.perform(get(image.getUrl()).requestAttr("org.apache.tomcat.sendfile.support", true))
+				.andExpect(status().isOk())
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 1000))
+				.andExpect(request().attribute("org.apache.tomcat.sendfile.filename", file))
+				.andExpect(request().attribute("org.apache.tomcat.sendfile.start", 0L))
+				.andExpect(request().attribute("org.apache.tomcat.sendfile.end", 1000L))
+				.andExpect(content().bytes(new byte[0]));
+
+		mockMvc.perform(get(image.getUrl()).requestAttr("org.apache.tomcat.sendfile.support", true)
+				.header(HttpHeaders.RANGE, "bytes=10-19"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/1000"))
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+				.andExpect(request().attribute("org.apache.tomcat.sendfile.start", 10L))
+				.andExpect(request().attribute("org.apache.tomcat.sendfile.end", 20L));
+	}
+
+	@Test
+	void dataUriIsDecodedOnceAndDeduplicated() throws Exception {
+		byte[] png = png(300);
+		String dataUri = "data:image/png;base64," + Base64.getEncoder().encodeToString(png);
+
+		StoredImage first = imageStorageService.storeDataUri(dataUri);
+		StoredImage second = imageStorageService.store(new ByteArrayInputStream(png), 10_000);
+
+		assertThat(first.getHash()).isEqualTo(second.getHash());
+		assertThat(first.getSize()).isEqualTo(300);
+		assertThat(first.getUrl()).startsWith(StoredImage.URL_PREFIX);
+	}
+
+	@Test
+	void rejectsOversizedAndNonImagePayloads() {
+		assertThatThrownBy(() -> imageStorageService.store(new ByteArrayInputStream(png(2000)), 1000))
+				.isInstanceOf(ValidationException.class);
+		assertThatThrownBy(() -> imageStorageService.store(new ByteArrayInputStream("not an image".getBytes()), 1000))
+				.isInstanceOf(ValidationException.class);
+	}
+
+	@Test
+	void multipartPostKeepsOnlyTheStoredImageUrl() throws Exception {
+		Users user = testData.user("uploader", "uploader-" + System.nanoTime() + "@example.com");
+		byte[] png = png(5000);
+		String expectedUrl = imageStorageService.store(new ByteArrayInputStream(png), 10_000).getUrl();
+
+		String body = mockMvc.perform(multipart("/api/posts")
+				.file(new MockMultipartFile("image", "photo.png", "image/png", png))
+				.param("caption", "from a form")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user)))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.data.imageUrl").value(expectedUrl))
+				.andReturn().getResponse().getContentAsString();
+
+		Long postId = Long.valueOf(body.replaceAll("(?s).*\"id\":(\\d+).*", "$1"));
+		Post post = postRepository.findById(postId).orElseThrow();
+		assertThat(post.getImageUrl()).isEqualTo(expectedUrl);
+
+		mockMvc.perform(multipart("/api/posts")
+				.file(new MockMultipartFile("image", "notes.txt", "image/png", "not an image".getBytes()))
+				.param("caption", "bad image")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user)))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void rawUploadIsStreamedIntoTheStore() throws Exception {
+		Users user = testData.user("rawuploader", "rawuploader-" + System.nanoTime() + "@example.com");
+		byte[] png = png(4000);
+
+		mockMvc.perform(post("/api/images")
+				.contentType("image/png")
+				.content(png)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user)))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.size").value(4000))
+				.andExpect(jsonPath("$.contentType").value("image/png"))
+				.andExpect(jsonPath("$.url").value(startsWith(StoredImage.URL_PREFIX)));
+
+		// Anonymous clients may read images but not add them
+		mockMvc.perform(post("/api/images").contentType("image/png").content(png))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void uploadsPastTheLimitAreRefused() throws Exception {
+		Users user = testData.user("busyuploader", "busyuploader-" + System.nanoTime() + "@example.com");
+		String token = jwtUtil.generateToken(user);
+
+		// Test limit is five per window
+		for (int i = 0; i < 5; i++) {
+			mockMvc.perform(post("/api/images")
+					.contentType("image/png")
+					.content(png(600 + i))
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+					.andExpect(status().isCreated());
+		}
+		mockMvc.perform(post("/api/images")
+				.contentType("image/png")
+				.content(png(700))
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isTooManyRequests());
+		mockMvc.perform(multipart("/api/posts")
+				.file(new MockMultipartFile("image", "photo.png", "image/png", png(701)))
+				.param("caption", "one more")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isTooManyRequests());
+	}
+
+	@Test
+	void sweepDeletesOnlyOldImagesNothingRefersTo() throws Exception {
+		Users user = testData.user("sweepowner", "sweepowner-" + System.nanoTime() + "@example.com");
+		StoredImage onPost = imageStorageService.store(new ByteArrayInputStream(png(801)), 10_000);
+		StoredImage photo = imageStorageService.store(new ByteArrayInputStream(png(802)), 10_000);
+		StoredImage variant = imageStorageService.store(new ByteArrayInputStream(png(803)), 10_000);
+		StoredImage orphan = imageStorageService.store(new ByteArrayInputStream(png(804)), 10_000);
+		StoredImage recent = imageStorageService.store(new ByteArrayInputStream(png(805)), 10_000);
+		imageStorageService.putVariant(photo.getHash(), "avatar-48", variant.getHash());
+
+		Post post = testData.post(user, "kept");
+		post.setImageUrl(onPost.getUrl());
+		postRepository.save(post);
+		user.setProfilePhotoUrl(photo.getUrl());
+		userRepository.save(user);
+
+		for (StoredImage image : new StoredImage[] { onPost, photo, variant, orphan }) {
+			backdate(image, Duration.ofDays(2));
+		}
+		imageSweepJob.sweep();
+
+		assertThat(imageStorageService.find(onPost.getHash())).isPresent();
+		assertThat(imageStorageService.find(photo.getHash())).isPresent();
+		assertThat(imageStorageService.find(variant.getHash())).isPresent();
+		assertThat(imageStorageService.find(recent.getHash())).isPresent();
+		assertThat(imageStorageService.find(orphan.getHash())).isEmpty();
+
+		// A replaced photo goes, and its variant with it on the next run
+		user.setProfilePhotoUrl(null);
+		userRepository.save(user);
+		imageSweepJob.sweep();
+		assertThat(imageStorageService.find(photo.getHash())).isEmpty();
+		assertThat(avatarService.findVariant(photo.getHash(), 48)).isEmpty();
+		imageSweepJob.sweep();
+		assertThat(imageStorageService.find(variant.getHash())).isEmpty();
+	}
+
+	private void backdate(StoredImage image, Duration age) throws Exception {
+		Path path = Path.of(imageDir, image.getHash().substring(0, 2), image.getHash());
+		Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(age)));
+	}
+
+	@Test
+	void profilePhotoIsStoredOnceAndServedAsSquareAvatars() throws Exception {
+		Users user = testData.user("avatarowner", "avatarowner-" + System.nanoTime() + "@example.com");
+
+		String dataUri = "data:image/png;base64," + Base64.getEncoder().encodeToString(photo(900, 600));
+		mockMvc.perform(put("/api/users/profile/photo")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"imageUrl\":\"" + dataUri + "\"}"))
+				.andExpect(status().isOk());
+
+		// The row keeps a short URL, and lists get the variant URLs
+		Users saved = userRepository.findById(user.getId()).orElseThrow();
+		String hash = StoredImage.hashOf(saved.getProfilePhotoUrl());
+		assertThat(hash).isNotNull();
+		assertThat(UserSnapshot.of(saved).toDTO().getAvatarUrls())
+				.containsEntry("48", "/api/images/" + hash + "/avatar-48")
+				.containsKeys("96", "256");
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (avatarService.findVariant(hash, 256).isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		for (int size : StoredImage.AVATAR_SIZES) {
+			MockHttpServletResponse response = mockMvc.perform(get(StoredImage.avatarUrl(hash, size)))
+					.andExpect(status().isOk())
+					.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+					.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+					.andReturn().getResponse();
+			BufferedImage avatar = ImageIO.read(new ByteArrayInputStream(response.getContentAsByteArray()));
+			assertThat(avatar.getWidth()).isEqualTo(size);
+			assertThat(avatar.getHeight()).isEqualTo(size);
+		}
+
+		mockMvc.perform(get("/api/images/" + hash + "/avatar-500"))
+				.andExpect(status().isNotFound());
+	}
+
+	// A real, decodable PNG with an off-center band so the crop matters
+	private static byte[] photo(int width, int height) throws Exception {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.BLUE);
+		g.fillRect(0, 0, width, height);
+		g.setColor(Color.ORANGE);
+		g.fillRect(width / 3, 0, width / 3, height);
+		g.dispose();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+
+	private static byte[] png(int size) {
+		byte[] bytes = new byte[size];
+		byte[] magic = { (byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A };
+		System.arraycopy(magic, 0, bytes, 0, magic.length);
+		for (int i = magic.length; i < size; i++) {
+			bytes[i] = (byte) (i * 31 + size);
+		}
+		return bytes;
+	}
+}
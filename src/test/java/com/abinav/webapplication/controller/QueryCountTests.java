@@ -0,0 +1,203 @@
+package com.abinav.webapplication.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.serviceImpl.CommentServiceImpl;
+import com.abinav.webapplication.serviceImpl.FollowServiceImpl;
+import com.abinav.webapplication.serviceImpl.LikeServiceImpl;
+import com.abinav.webapplication.serviceImpl.TimelineServiceImpl;
+import com.abinav.webapplication.serviceImpl.UserIdentityCache;
+import com.abinav.webapplication.utility.JwtUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pins the number of SQL statements each endpoint issues, so an association
+ * that goes back to eager loading or a new per-row lookup fails here.
+ * Every list is seeded with several rows, so an N+1 shows up as a count
+ * change. The user identity cache starts cold for every request, and the
+ * after-commit timeline work a write triggers is waited for and counted
+ * with it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class QueryCountTests {
+
+	private static final int ROWS = 4;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private UserIdentityCache userIdentityCache;
+
+	@Autowired
+	private TimelineServiceImpl timelineService;
+
+	@Autowired
+	@Qualifier("timelineExecutor")
+	private ThreadPoolTaskExecutor timelineExecutor;
+
+	@Autowired
+	private LikeServiceImpl likeService;
+
+	@Autowired
+	private CommentServiceImpl commentService;
+
+	@Autowired
+	private FollowServiceImpl followService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	private Statistics statistics;
+	private Users author;
+	private Users viewer;
+	private List<Users> fans;
+	private Post post;
+	private String token;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		testData.reset();
+		timelineService.refreshCelebrities();
+
+		author = testData.user("author");
+		viewer = testData.user("viewer");
+		fans = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			fans.add(testData.user("fan" + i));
+		}
+		for (int i = 0; i < ROWS; i++) {
+			post = testData.post(author, "post " + i);
+			timelineService.fanOut(post.getId(), author.getId());
+		}
+		followService.followUser(viewer.getId(), author.getId());
+		for (Users fan : fans) {
+			followService.followUser(fan.getId(), author.getId());
+			followService.followUser(author.getId(), fan.getId());
+			likeService.likePost(post.getId(), fan.getId());
+			commentService.addComment(post.getId(), fan.getId(), "hi from " + fan.getUsername());
+		}
+		timelineService.fanOut(post.getId(), author.getId());
+		token = jwtUtil.generateToken(viewer);
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void readEndpoints() throws Exception {
+		assertStatements(get("/api/posts"), 1);
+		assertStatements(authed(get("/api/posts")), 2);
+		assertStatements(authed(get("/api/posts/" + post.getId())), 1);
+		assertStatements(authed(get("/api/posts/timeline")), 3);
+		assertStatements(get("/api/posts/" + post.getId() + "/likes"), 2);
+		assertStatements(get("/api/posts/" + post.getId() + "/comments"), 2);
+		assertStatements(get("/api/users/" + author.getId() + "/followers"), 2);
+		assertStatements(get("/api/users/" + author.getId() + "/following"), 2);
+		// Follow counts come from the social graph; the post count is one indexed count
+		assertStatements(get("/api/users/" + author.getId() + "/profile"), 2)
+				.andExpect(jsonPath("$.posts_count").value(ROWS));
+	}
+
+	@Test
+	void listEndpointsProjectWithoutLoadingEntities() throws Exception {
+		assertEntityLoads(get("/api/posts/" + post.getId() + "/likes"), 0)
+				.andExpect(jsonPath("$.likes.length()").value(ROWS))
+				.andExpect(jsonPath("$.likes[0].username").value("fan" + (ROWS - 1)));
+		assertEntityLoads(get("/api/posts/" + post.getId() + "/comments"), 0)
+				.andExpect(jsonPath("$.comments.length()").value(ROWS))
+				.andExpect(jsonPath("$.comments[0].user.username").exists())
+				.andExpect(jsonPath("$.comments[0].updatedAt").exists());
+		// The one load is the identity cache checking the user before reading the graph
+		assertEntityLoads(get("/api/users/" + author.getId() + "/followers"), 1)
+				.andExpect(jsonPath("$.followers.length()").value(ROWS + 1))
+				.andExpect(jsonPath("$.count").value(ROWS + 1));
+		assertEntityLoads(get("/api/users/" + author.getId() + "/following"), 1)
+				.andExpect(jsonPath("$.following[0].id").value(fans.get(ROWS - 1).getId()));
+	}
+
+	@Test
+	void writeEndpoints() throws Exception {
+		assertStatements(authed(post("/api/posts/" + post.getId() + "/like")), 3);
+		assertStatements(authed(delete("/api/posts/" + post.getId() + "/unlike")), 2);
+		assertStatements(authed(post("/api/posts/" + post.getId() + "/comments")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"nice\"}")), 4);
+		assertStatements(authed(delete("/api/users/" + author.getId() + "/unfollow")), 3);
+		assertStatements(authed(post("/api/users/" + author.getId() + "/follow")), 5);
+	}
+
+	private ResultActions assertStatements(MockHttpServletRequestBuilder request, long expected) throws Exception {
+		awaitTimelineWork();
+		userIdentityCache.invalidateAll();
+		statistics.clear();
+		ResultActions result = mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+		awaitTimelineWork();
+		assertThat(statistics.getPrepareStatementCount())
+				.as("SQL statements for %s", request.buildRequest(null).getRequestURI())
+				.isEqualTo(expected);
+		return result;
+	}
+
+	private void awaitTimelineWork() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while ((timelineExecutor.getActiveCount() > 0
+				|| !timelineExecutor.getThreadPoolExecutor().getQueue().isEmpty())
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private ResultActions assertEntityLoads(MockHttpServletRequestBuilder request, long expected) throws Exception {
+		awaitTimelineWork();
+		userIdentityCache.invalidateAll();
+		statistics.clear();
+		ResultActions result = mockMvc.perform(request).andExpect(status().isOk());
+		assertThat(statistics.getEntityLoadCount())
+				.as("entities loaded for %s", request.buildRequest(null).getRequestURI())
+				.isEqualTo(expected);
+		return result;
+	}
+
+	private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+		return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+	}
+}
@@ -0,0 +1,133 @@
+package com.abinav.webapplication.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.dto.PostPageDTO;
+import com.abinav.webapplication.model.Users;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+		"app.feed.anonymous-cache.enabled=true",
+		"app.feed.anonymous-cache.ttl-ms=2000",
+		"app.feed.anonymous-cache.max-stale-ms=30000"
+})
+@Import(TestData.class)
+class AnonymousFeedCacheTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private AnonymousFeedCache anonymousFeedCache;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Users author;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		anonymousFeedCache.invalidateAll();
+
+		author = testData.user("anonfeed");
+		testData.post(author, "first");
+	}
+
+	@AfterEach
+	void restoreCache() {
+		anonymousFeedCache.init();
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<AnonymousFeedCache.Page>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					return anonymousFeedCache.get(null, 20);
+				}));
+			}
+			start.countDown();
+			AnonymousFeedCache.Page first = results.get(0).get();
+			for (Future<AnonymousFeedCache.Page> result : results) {
+				assertThat(result.get()).isSameAs(first);
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		// Same page, spelled differently
+		assertThat(anonymousFeedCache.get("", 20)).isSameAs(anonymousFeedCache.get(null, 20));
+	}
+
+	@Test
+	void expiredPageIsServedWhileOneReloadReplacesIt() {
+		// Reloads wait in the queue until the test runs them; time moves only when told to
+		Queue<Runnable> queued = new ConcurrentLinkedQueue<>();
+		AtomicLong nanos = new AtomicLong();
+		anonymousFeedCache.build(queued::add, nanos::get);
+
+		AnonymousFeedCache.Page before = anonymousFeedCache.get(null, 20);
+		assertThat(captions(before.page())).containsExactly("first");
+		runAll(queued);
+
+		testData.post(author, "second");
+		nanos.addAndGet(Duration.ofMillis(2500).toNanos());
+
+		// Past the TTL: the stale page comes back at once, however often it is asked for
+		assertThat(anonymousFeedCache.get(null, 20)).isSameAs(before);
+		assertThat(anonymousFeedCache.get(null, 20)).isSameAs(before);
+		assertThat(queued).isNotEmpty();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		runAll(queued);
+		// One reload for both requests
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		AnonymousFeedCache.Page after = anonymousFeedCache.get(null, 20);
+		assertThat(after).isNotSameAs(before);
+		assertThat(captions(after.page())).containsExactly("second", "first");
+	}
+
+	private void runAll(Queue<Runnable> queued) {
+		Runnable task;
+		while ((task = queued.poll()) != null) {
+			task.run();
+		}
+	}
+
+	private List<String> captions(PostPageDTO page) {
+		return page.getPosts().stream().map(p -> p.getCaption()).toList();
+	}
+}
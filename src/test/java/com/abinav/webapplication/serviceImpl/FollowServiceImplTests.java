@@ -0,0 +1,104 @@
+package com.abinav.webapplication.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.dto.FollowPageDTO;
+import com.abinav.webapplication.dto.UserDTO;
+import com.abinav.webapplication.model.Follow;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.FollowRepository;
+import com.abinav.webapplication.repository.UserRepository;
+import com.abinav.webapplication.scheduler.CounterReconciliationJob;
+
+@SpringBootTest
+@Import(TestData.class)
+class FollowServiceImplTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private FollowServiceImpl followService;
+
+	@Autowired
+	private CounterReconciliationJob reconciliationJob;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private FollowRepository followRepository;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+	}
+
+	@Test
+	void followerPagesFollowCursorNewestFirst() throws Exception {
+		Users star = testData.user("star");
+		List<Long> fanIds = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			Users fan = testData.user("fan" + i);
+			followService.followUser(fan.getId(), star.getId());
+			fanIds.add(0, fan.getId());
+		}
+
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			FollowPageDTO page = followService.getFollowers(star.getId(), cursor, 3);
+			assertThat(page.getTotal()).isEqualTo(7);
+			page.getUsers().forEach(u -> seen.add(u.getId()));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(seen).containsExactlyElementsOf(fanIds);
+
+		List<UserDTO> following = followService.getFollowing(fanIds.get(0), null, 10).getUsers();
+		assertThat(following).extracting(UserDTO::getId).containsExactly(star.getId());
+		assertThat(followService.getFollowers(star.getId(), null, 1000).getUsers()).hasSize(7);
+		assertThat(followService.getFollowers(star.getId(), null, 0).getUsers()).hasSize(7);
+	}
+
+	@Test
+	void countersFollowWritesAndReconcileAfterDrift() throws Exception {
+		Users a = testData.user("alice");
+		Users b = testData.user("bob");
+
+		assertThat(followService.followUser(a.getId(), b.getId())).isTrue();
+		assertThat(followService.followUser(a.getId(), b.getId())).isFalse();
+		assertThat(followService.getFollowersCount(b.getId())).isEqualTo(1);
+		assertThat(followService.getFollowingCount(a.getId())).isEqualTo(1);
+		assertThat(followService.getFollowersCount(a.getId())).isZero();
+
+		assertThat(followService.unfollowUser(a.getId(), b.getId())).isTrue();
+		assertThat(followService.unfollowUser(a.getId(), b.getId())).isFalse();
+		assertThat(followService.getFollowersCount(b.getId())).isZero();
+		assertThat(followService.getFollowingCount(a.getId())).isZero();
+
+		// An edge written behind the service's back drifts until reconciliation runs
+		Follow follow = new Follow();
+		follow.setFollower(a);
+		follow.setFollowing(b);
+		followRepository.save(follow);
+		assertThat(userRepository.findFollowerCountById(b.getId())).contains(0L);
+
+		reconciliationJob.reconcile();
+		assertThat(userRepository.findFollowerCountById(b.getId())).contains(1L);
+		assertThat(userRepository.findFollowingCountById(a.getId())).contains(1L);
+	}
+}
@@ -0,0 +1,67 @@
+package com.abinav.webapplication.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.dto.UserDTO;
+import com.abinav.webapplication.dto.UserSnapshot;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.UserRepository;
+
+@SpringBootTest(properties = "app.images.migrate-legacy=true")
+@Import(TestData.class)
+class LegacyImageMigrationTests {
+
+	// 1x1 PNG
+	private static final String PHOTO = "data:image/png;base64,"
+			+ "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==";
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private LegacyImageMigration legacyImageMigration;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserIdentityCache userIdentityCache;
+
+	@Autowired
+	private UserSearchIndex userSearchIndex;
+
+	@Autowired
+	private VersionStamps versionStamps;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+	}
+
+	@Test
+	void migratedProfilePhotosReachCachesAndETags() {
+		Users user = testData.user("legacyphoto");
+		user.setProfilePhotoUrl(PHOTO);
+		userRepository.save(user);
+
+		// Cached with the inline photo, as a running instance would have it
+		assertThat(userIdentityCache.findById(user.getId())).map(UserSnapshot::getProfilePhotoUrl).contains(PHOTO);
+		String etag = versionStamps.feedETag(null);
+
+		legacyImageMigration.run(new DefaultApplicationArguments());
+
+		String url = userRepository.findById(user.getId()).orElseThrow().getProfilePhotoUrl();
+		assertThat(url).startsWith("/api/images/");
+		assertThat(userIdentityCache.findById(user.getId())).map(UserSnapshot::getProfilePhotoUrl).contains(url);
+		assertThat(userSearchIndex.search("legacyphoto", 5)).map(UserDTO::getProfilePhotoUrl).containsExactly(url);
+		assertThat(versionStamps.feedETag(null)).isNotEqualTo(etag);
+	}
+}
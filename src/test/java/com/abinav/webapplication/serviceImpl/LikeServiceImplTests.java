@@ -0,0 +1,138 @@
+package com.abinav.webapplication.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.FollowRepository;
+import com.abinav.webapplication.repository.LikeRepository;
+import com.abinav.webapplication.repository.PostRepository;
+
+@SpringBootTest
+@Import(TestData.class)
+class LikeServiceImplTests {
+
+	private static final int USERS = 10;
+
+	@Autowired
+	private TestData testData;
+	private static final int POSTS = 10;
+	private static final int TAPS_PER_PAIR = 20;
+
+	@Autowired
+	private LikeServiceImpl likeService;
+
+	@Autowired
+	private FollowServiceImpl followService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private LikeRepository likeRepository;
+
+	@Autowired
+	private FollowRepository followRepository;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+	}
+
+	@Test
+	void concurrentLikesCreateExactlyOneRowPerPair() throws Exception {
+		List<Users> users = new ArrayList<>();
+		List<Post> posts = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			users.add(testData.user("liker" + i));
+		}
+		for (int i = 0; i < POSTS; i++) {
+			Post post = new Post();
+			post.setUser(users.get(0));
+			post.setCaption("post " + i);
+			posts.add(postRepository.save(post));
+		}
+
+		List<Callable<Boolean>> taps = new ArrayList<>();
+		for (int tap = 0; tap < TAPS_PER_PAIR; tap++) {
+			for (Users user : users) {
+				for (Post post : posts) {
+					taps.add(() -> likeService.likePost(post.getId(), user.getId()));
+				}
+			}
+		}
+
+		long added = runConcurrently(taps).stream().filter(Boolean::booleanValue).count();
+
+		assertThat(taps).hasSize(USERS * POSTS * TAPS_PER_PAIR);
+		assertThat(added).isEqualTo(USERS * POSTS);
+		assertThat(likeRepository.count()).isEqualTo(USERS * POSTS);
+		for (Post post : posts) {
+			assertThat(likeService.getLikesCount(post.getId())).isEqualTo(USERS);
+		}
+
+		// Second unlike is a no-op and must not push the counter below the row count
+		Long postId = posts.get(0).getId();
+		assertThat(likeService.unlikePost(postId, users.get(1).getId())).isTrue();
+		assertThat(likeService.unlikePost(postId, users.get(1).getId())).isFalse();
+		assertThat(likeService.getLikesCount(postId)).isEqualTo(USERS - 1);
+	}
+
+	@Test
+	void concurrentFollowsCreateOneRowAndMissingTargetsFail() throws Exception {
+		Users follower = testData.user("fan");
+		Users star = testData.user("star");
+
+		List<Callable<Boolean>> taps = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			taps.add(() -> followService.followUser(follower.getId(), star.getId()));
+		}
+
+		assertThat(runConcurrently(taps).stream().filter(Boolean::booleanValue).count()).isEqualTo(1);
+		assertThat(followRepository.count()).isEqualTo(1);
+		assertThat(followService.unfollowUser(follower.getId(), star.getId())).isTrue();
+		assertThat(followService.unfollowUser(follower.getId(), star.getId())).isFalse();
+
+		assertThatThrownBy(() -> followService.followUser(follower.getId(), -1L)).hasMessage("User to follow not found");
+		assertThatThrownBy(() -> likeService.likePost(-1L, follower.getId())).hasMessage("Post not found");
+	}
+
+	private static <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<T>> futures = new ArrayList<>();
+			for (Callable<T> task : tasks) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					return task.call();
+				}));
+			}
+			start.countDown();
+			List<T> results = new ArrayList<>();
+			for (Future<T> future : futures) {
+				results.add(future.get(60, TimeUnit.SECONDS));
+			}
+			return results;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
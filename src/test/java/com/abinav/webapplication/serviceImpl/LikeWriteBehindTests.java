@@ -0,0 +1,172 @@
+package com.abinav.webapplication.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.dto.PostDTO;
+import com.abinav.webapplication.dto.UserDTO;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.LikeRepository;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.service.PostService;
+
+// Flushes are triggered by the tests, never by the schedule
+@SpringBootTest(properties = {
+		"app.likes.write-behind.enabled=true",
+		"app.likes.write-behind.flush-interval-ms=3600000"
+})
+@Import(TestData.class)
+class LikeWriteBehindTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private LikeWriteBehind likeWriteBehind;
+
+	@Autowired
+	private LikeServiceImpl likeService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private LikeRepository likeRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${app.likes.write-behind.journal-dir}")
+	private String journalDir;
+
+	@BeforeEach
+	void setUp() {
+		likeWriteBehind.flush();
+		testData.reset();
+	}
+
+	@Test
+	void togglesAreCoalescedOverlaidAndFlushedInOneBatch() throws Exception {
+		Users author = testData.user("wbauthor");
+		Users fan = testData.user("wbfan");
+		Post post = testData.post(author, "write-behind");
+
+		assertThat(likeService.likePost(post.getId(), author.getId())).isTrue();
+		assertThat(likeService.likePost(post.getId(), author.getId())).isFalse();
+		assertThat(likeService.likePost(post.getId(), fan.getId())).isTrue();
+		assertThat(likeService.unlikePost(post.getId(), fan.getId())).isTrue();
+
+		// Acknowledged, not yet written; reads see the pending state
+		assertThat(likeRepository.count()).isZero();
+		assertThat(likeService.getLikesCount(post.getId())).isEqualTo(1);
+		assertThat(likeService.isLikedByUser(post.getId(), author.getId())).isTrue();
+		assertThat(likeService.isLikedByUser(post.getId(), fan.getId())).isFalse();
+		PostDTO dto = postService.getPostDTOById(post.getId(), author.getId());
+		assertThat(dto.getLikeCount()).isEqualTo(1);
+		assertThat(dto.isLikedByCurrentUser()).isTrue();
+
+		likeWriteBehind.flush();
+
+		// The fan's like/unlike cancelled out and never reached the table
+		assertThat(likeRepository.count()).isEqualTo(1);
+		assertThat(postRepository.findLikeCountById(post.getId())).contains(1L);
+		assertThat(likeWriteBehind.hasPending()).isFalse();
+		assertThat(likeService.getLikesCount(post.getId())).isEqualTo(1);
+
+		assertThat(likeService.unlikePost(post.getId(), author.getId())).isTrue();
+		likeWriteBehind.flush();
+		assertThat(likeRepository.count()).isZero();
+		assertThat(postRepository.findLikeCountById(post.getId())).contains(0L);
+	}
+
+	@Test
+	void likersListAgreesWithTheCountBeforeAFlush() throws Exception {
+		Users author = testData.user("listauthor");
+		Users fan = testData.user("listfan");
+		Users leaver = testData.user("listleaver");
+		Post post = testData.post(author, "write-behind");
+
+		likeService.likePost(post.getId(), author.getId());
+		likeService.likePost(post.getId(), leaver.getId());
+		likeWriteBehind.flush();
+
+		likeService.likePost(post.getId(), fan.getId());
+		likeService.unlikePost(post.getId(), leaver.getId());
+
+		// The new like leads, the withdrawn one is gone, and the count matches
+		List<UserDTO> likers = likeService.getPostLikes(post.getId());
+		assertThat(likers).extracting(UserDTO::getUsername).containsExactly("listfan", "listauthor");
+		assertThat(likeService.getLikesCount(post.getId())).isEqualTo(likers.size());
+
+		likeWriteBehind.flush();
+		assertThat(likeService.getPostLikes(post.getId())).extracting(UserDTO::getUsername)
+				.containsExactly("listfan", "listauthor");
+	}
+
+	@Test
+	void flushInsideACallersTransactionSurvivesItsRollback() throws Exception {
+		Users author = testData.user("rbauthor");
+		Post post = testData.post(author, "write-behind");
+
+		// As when the like that fills a batch flushes inside likePost's transaction
+		transactionTemplate.executeWithoutResult(status -> {
+			try {
+				likeService.likePost(post.getId(), author.getId());
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			likeWriteBehind.flush();
+			status.setRollbackOnly();
+		});
+
+		// Journal segment and overlay are gone, so the rows must be committed
+		assertThat(likeWriteBehind.hasPending()).isFalse();
+		assertThat(likeRepository.count()).isEqualTo(1);
+		assertThat(postRepository.findLikeCountById(post.getId())).contains(1L);
+		assertThat(likeService.isLikedByUser(post.getId(), author.getId())).isTrue();
+	}
+
+	@Test
+	void journalOfEarlierRunIsReplayedIdempotently() throws Exception {
+		Users author = testData.user("jauthor");
+		Users fan = testData.user("jfan");
+		Users other = testData.user("jother");
+		Post post = testData.post(author, "write-behind");
+		// Already flushed before the "crash"
+		likeService.likePost(post.getId(), author.getId());
+		likeWriteBehind.flush();
+
+		Path segment = Path.of(journalDir, "segment-0000000000.log");
+		Files.write(segment, List.of(
+				"+ " + author.getId() + " " + post.getId(),
+				"+ " + fan.getId() + " " + post.getId(),
+				"+ " + other.getId() + " " + post.getId(),
+				"- " + other.getId() + " " + post.getId(),
+				"+ 12"), StandardCharsets.US_ASCII);
+
+		likeWriteBehind.replay();
+
+		assertThat(Files.exists(segment)).isFalse();
+		assertThat(likeService.isLikedByUser(post.getId(), author.getId())).isTrue();
+		assertThat(likeService.isLikedByUser(post.getId(), fan.getId())).isTrue();
+		assertThat(likeService.isLikedByUser(post.getId(), other.getId())).isFalse();
+		assertThat(postRepository.findLikeCountById(post.getId())).contains(2L);
+	}
+}
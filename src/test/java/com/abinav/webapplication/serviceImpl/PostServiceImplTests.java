@@ -0,0 +1,209 @@
+package com.abinav.webapplication.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.dto.PostDTO;
+import com.abinav.webapplication.dto.PostPageDTO;
+import com.abinav.webapplication.exception.ResourceNotFoundException;
+import com.abinav.webapplication.model.Comment;
+import com.abinav.webapplication.model.Like;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.LikeRepository;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.scheduler.CounterReconciliationJob;
+import com.abinav.webapplication.service.PostService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Import(TestData.class)
+class PostServiceImplTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private LikeRepository likeRepository;
+
+	@Autowired
+	private LikeServiceImpl likeService;
+
+	@Autowired
+	private CommentServiceImpl commentService;
+
+	@Autowired
+	private FollowServiceImpl followService;
+
+	@Autowired
+	private CounterReconciliationJob reconciliationJob;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void feedStatementCountDoesNotDependOnPageSize() throws Exception {
+		Users viewer = testData.user("viewer");
+		Users author = testData.user("author");
+		follow(viewer, author);
+
+		addPosts(author, viewer, 30);
+		long smallPage = countStatements(viewer, 3);
+		long largePage = countStatements(viewer, 30);
+
+		assertThat(postService.getFeed(null, 30, viewer.getId()).getPosts()).hasSize(30);
+		assertThat(largePage).isEqualTo(smallPage);
+	}
+
+	@Test
+	void feedReportsCountsAndViewerState() throws Exception {
+		Users viewer = testData.user("reader");
+		Users author = testData.user("writer");
+		follow(viewer, author);
+		addPosts(author, viewer, 1);
+		postRepository.save(newPost(viewer));
+
+		List<PostDTO> feed = postService.getFeed(null, 10, viewer.getId()).getPosts();
+		PostDTO authorPost = feed.stream().filter(p -> p.getAuthorId().equals(author.getId())).findFirst().orElseThrow();
+		PostDTO ownPost = feed.stream().filter(p -> p.getAuthorId().equals(viewer.getId())).findFirst().orElseThrow();
+
+		assertThat(authorPost.getLikeCount()).isEqualTo(1);
+		assertThat(authorPost.getCommentCount()).isEqualTo(1);
+		assertThat(authorPost.isLikedByCurrentUser()).isTrue();
+		assertThat(authorPost.isFollowingAuthor()).isTrue();
+		assertThat(ownPost.getLikeCount()).isZero();
+		assertThat(ownPost.isLikedByCurrentUser()).isFalse();
+		assertThat(ownPost.isFollowingAuthor()).isFalse();
+
+		PostDTO anonymous = postService.getPostDTOById(authorPost.getId(), null);
+		assertThat(anonymous.getLikeCount()).isEqualTo(1);
+		assertThat(anonymous.isLikedByCurrentUser()).isFalse();
+	}
+
+	@Test
+	void countersFollowWritesAndReconcileAfterDrift() throws Exception {
+		Users viewer = testData.user("counter");
+		addPosts(viewer, viewer, 1);
+		Long postId = postService.getFeed(null, 1, null).getPosts().get(0).getId();
+
+		likeService.likePost(postId, viewer.getId());
+		assertThat(likeService.getLikesCount(postId)).isEqualTo(1);
+		likeService.unlikePost(postId, viewer.getId());
+		assertThat(likeService.getLikesCount(postId)).isZero();
+
+		Comment comment = commentService.addComment(postId, viewer.getId(), "second");
+		assertThat(commentService.getCommentCount(postId)).isEqualTo(2);
+		commentService.deleteComment(comment.getId(), viewer.getId());
+		assertThat(commentService.getCommentCount(postId)).isEqualTo(1);
+
+		// Rows written behind the services' back drift until reconciliation runs
+		Like like = new Like();
+		like.setUser(viewer);
+		like.setPost(postRepository.getReferenceById(postId));
+		likeRepository.save(like);
+		assertThat(likeService.getLikesCount(postId)).isZero();
+
+		reconciliationJob.reconcile();
+		assertThat(likeService.getLikesCount(postId)).isEqualTo(1);
+		assertThat(commentService.getCommentCount(postId)).isEqualTo(1);
+	}
+
+	@Test
+	void feedPagesFollowCursorWithoutGapsOrDuplicates() throws Exception {
+		Users viewer = testData.user("pager");
+		addPosts(viewer, viewer, 7);
+
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			PostPageDTO page = postService.getFeed(cursor, 3, viewer.getId());
+			page.getPosts().forEach(p -> seen.add(p.getId()));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		List<Long> expected = postService.getFeed(null, 100, viewer.getId()).getPosts()
+				.stream().map(PostDTO::getId).toList();
+		assertThat(pages).isEqualTo(3);
+		assertThat(seen).containsExactlyElementsOf(expected).hasSize(7);
+
+		PostPageDTO userPage = postService.getUserPosts(viewer.getEmail(), null, 5);
+		assertThat(userPage.getPosts()).hasSize(5);
+		assertThat(postService.getUserPosts(viewer.getEmail(), userPage.getNextCursor(), 5).getPosts()).hasSize(2);
+	}
+
+	@Test
+	void singlePostReadsViewerStateInOneStatement() throws Exception {
+		Users viewer = testData.user("single");
+		Users author = testData.user("singleauthor");
+		follow(viewer, author);
+		addPosts(author, viewer, 1);
+		Long postId = postService.getFeed(null, 1, null).getPosts().get(0).getId();
+
+		statistics.clear();
+		PostDTO dto = postService.getPostDTOById(postId, viewer.getId());
+		// Viewer reference is lazy; the post, its author and the like check are one select
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(dto.getUsername()).isEqualTo("singleauthor");
+		assertThat(dto.isLikedByCurrentUser()).isTrue();
+		assertThat(dto.isFollowingAuthor()).isTrue();
+		assertThat(postService.getPostDTOById(postId, author.getId()).isLikedByCurrentUser()).isFalse();
+
+		assertThatThrownBy(() -> postService.getPostDTOById(postId + 1000, viewer.getId()))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private long countStatements(Users viewer, int pageSize) {
+		statistics.clear();
+		postService.getFeed(null, pageSize, viewer.getId());
+		return statistics.getPrepareStatementCount();
+	}
+
+	// Through the service so the in-memory social graph sees it
+	private void follow(Users follower, Users following) throws Exception {
+		followService.followUser(follower.getId(), following.getId());
+	}
+
+	private Post newPost(Users author) {
+		Post post = new Post();
+		post.setUser(author);
+		post.setCaption("caption by " + author.getUsername());
+		return post;
+	}
+
+	private void addPosts(Users author, Users viewer, int count) throws Exception {
+		for (int i = 0; i < count; i++) {
+			Post post = postRepository.save(newPost(author));
+			likeService.likePost(post.getId(), viewer.getId());
+			commentService.addComment(post.getId(), viewer.getId(), "nice");
+		}
+	}
+}
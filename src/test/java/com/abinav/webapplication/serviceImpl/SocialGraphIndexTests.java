@@ -0,0 +1,105 @@
+package com.abinav.webapplication.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.model.Follow;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.FollowRepository;
+import com.abinav.webapplication.utility.FollowGraph;
+
+@SpringBootTest
+@Import(TestData.class)
+class SocialGraphIndexTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private SocialGraphIndex socialGraphIndex;
+
+	@Autowired
+	private FollowServiceImpl followService;
+
+	@Autowired
+	private FollowRepository followRepository;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		socialGraphIndex.rebuild();
+	}
+
+	@Test
+	void followWritesAreVisibleWithoutTheDatabase() throws Exception {
+		Users a = testData.user("ann");
+		Users b = testData.user("ben");
+		Users c = testData.user("cid");
+		assertThat(socialGraphIndex.isReady()).isTrue();
+
+		followService.followUser(a.getId(), b.getId());
+		followService.followUser(c.getId(), b.getId());
+		followService.followUser(a.getId(), c.getId());
+
+		assertThat(socialGraphIndex.isFollowing(a.getId(), b.getId())).isTrue();
+		assertThat(socialGraphIndex.isFollowing(b.getId(), a.getId())).isFalse();
+		assertThat(socialGraphIndex.followerCount(b.getId())).isEqualTo(2);
+		assertThat(socialGraphIndex.followingCount(a.getId())).isEqualTo(2);
+		assertThat(socialGraphIndex.followedAmong(a.getId(), List.of(b.getId(), c.getId(), a.getId())))
+				.containsExactlyInAnyOrder(b.getId(), c.getId());
+
+		followService.unfollowUser(a.getId(), b.getId());
+		assertThat(followService.isFollowing(a.getId(), b.getId())).isFalse();
+		assertThat(followService.getFollowersCount(b.getId())).isEqualTo(1);
+	}
+
+	@Test
+	void rebuildPicksUpFollowsWrittenElsewhere() {
+		Users a = testData.user("dan");
+		Users b = testData.user("eve");
+		Follow follow = new Follow();
+		follow.setFollower(a);
+		follow.setFollowing(b);
+		followRepository.save(follow);
+		assertThat(socialGraphIndex.isFollowing(a.getId(), b.getId())).isFalse();
+
+		socialGraphIndex.rebuild();
+
+		assertThat(socialGraphIndex.isFollowing(a.getId(), b.getId())).isTrue();
+		assertThat(socialGraphIndex.stats()).containsEntry("edges", 1L).containsKey("bytesPerMillionEdges");
+	}
+
+	@Test
+	void graphKeepsAdjacencySortedAndReportsFootprint() {
+		FollowGraph graph = new FollowGraph(16);
+		int users = 2_000;
+		for (long follower = 1; follower <= users; follower++) {
+			for (long k = 1; k <= 50; k++) {
+				graph.add(follower, (follower * 7 + k * 13) % users + 1);
+			}
+		}
+		// Duplicates and unknown removals are no-ops
+		long edges = graph.edgeCount();
+		assertThat(graph.add(1, (1 * 7 + 13) % users + 1)).isFalse();
+		assertThat(graph.remove(1, 1_000_000)).isFalse();
+		assertThat(graph.edgeCount()).isEqualTo(edges);
+
+		long target = (5 * 7 + 2 * 13) % users + 1;
+		assertThat(graph.contains(5, target)).isTrue();
+		assertThat(graph.remove(5, target)).isTrue();
+		assertThat(graph.contains(5, target)).isFalse();
+		assertThat(graph.nodeCount()).isEqualTo(users);
+
+		graph.compact();
+		// ~8 bytes per edge plus per-user overhead
+		assertThat(graph.estimatedBytes() * 1_000_000 / graph.edgeCount()).isLessThan(16_000_000L);
+	}
+}
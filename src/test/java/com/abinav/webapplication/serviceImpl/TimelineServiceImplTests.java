@@ -0,0 +1,149 @@
+package com.abinav.webapplication.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.dto.PostDTO;
+import com.abinav.webapplication.dto.PostPageDTO;
+import com.abinav.webapplication.model.Post;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.repository.PostRepository;
+import com.abinav.webapplication.repository.TimelineRepository;
+import com.abinav.webapplication.service.PostService;
+
+@SpringBootTest(properties = "app.timeline.celebrity-threshold=3")
+@Import(TestData.class)
+class TimelineServiceImplTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private TimelineServiceImpl timelineService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private FollowServiceImpl followService;
+
+	@Autowired
+	private TimelineRepository timelineRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		timelineService.refreshCelebrities();
+	}
+
+	@Test
+	void postsAreFannedOutToFollowersAndRemovedOnUnfollow() throws Exception {
+		Users reader = testData.user("reader");
+		Users writer = testData.user("writer");
+		Users stranger = testData.user("stranger");
+		followService.followUser(reader.getId(), writer.getId());
+
+		for (int i = 0; i < 5; i++) {
+			createPost(writer);
+		}
+		createPost(stranger);
+		Post own = createPost(reader);
+
+		awaitTrue(() -> timelineRepository.count() == 5 * 2 + 1 + 1);
+
+		List<Long> seen = readAll(reader, 2);
+		assertThat(seen).hasSize(6).contains(own.getId());
+		assertThat(seen).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+
+		followService.unfollowUser(reader.getId(), writer.getId());
+		awaitTrue(() -> readAll(reader, 10).size() == 1);
+	}
+
+	@Test
+	void followingBackfillsRecentPosts() throws Exception {
+		Users reader = testData.user("late");
+		Users writer = testData.user("early");
+		createPost(writer);
+		createPost(writer);
+
+		followService.followUser(reader.getId(), writer.getId());
+
+		awaitTrue(() -> readAll(reader, 10).size() == 2);
+	}
+
+	@Test
+	void celebrityPostsAreMergedOnRead() throws Exception {
+		Users celebrity = testData.user("celebrity");
+		Users reader = testData.user("fan0");
+		followService.followUser(reader.getId(), celebrity.getId());
+		followService.followUser(testData.user("fan1").getId(), celebrity.getId());
+		followService.followUser(testData.user("fan2").getId(), celebrity.getId());
+		timelineService.refreshCelebrities();
+		assertThat(timelineService.isCelebrity(celebrity.getId())).isTrue();
+
+		Post post = createPost(celebrity);
+		Post mine = createPost(reader);
+		awaitTrue(() -> timelineRepository.count() == 2);
+
+		// Only the authors' own entries were materialized
+		assertThat(timelineRepository.findFirstPage(reader.getId(), Limit.of(10)))
+				.hasSize(1);
+		assertThat(readAll(reader, 1)).containsExactly(mine.getId(), post.getId());
+	}
+
+	@Test
+	void trimKeepsNewestEntries() throws Exception {
+		Users writer = testData.user("prolific");
+		for (int i = 0; i < 805; i++) {
+			Post post = new Post();
+			post.setUser(writer);
+			post.setCaption("post " + i);
+			timelineService.fanOut(postRepository.save(post).getId(), writer.getId());
+		}
+
+		assertThat(timelineService.trimTimelines()).isEqualTo(5);
+		List<Long> remaining = readAll(writer, 100);
+		assertThat(remaining).hasSize(800);
+		assertThat(remaining.get(0)).isEqualTo(postRepository.findMaxId());
+	}
+
+	private List<Long> readAll(Users user, int pageSize) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			PostPageDTO page = timelineService.getTimeline(user.getId(), cursor, pageSize);
+			page.getPosts().stream().map(PostDTO::getId).forEach(ids::add);
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return ids;
+	}
+
+	private Post createPost(Users author) {
+		Post post = new Post();
+		post.setUser(author);
+		post.setCaption("by " + author.getUsername());
+		return postService.createPost(post);
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.abinav.webapplication.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.dto.UserSnapshot;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.service.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Import(TestData.class)
+class UserIdentityCacheTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private UserIdentityCache userIdentityCache;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		userIdentityCache.invalidateAll();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void repeatedLookupsHitTheDatabaseOnce() {
+		Users user = testData.user("cached");
+
+		statistics.clear();
+		for (int i = 0; i < 5; i++) {
+			assertThat(userIdentityCache.findByEmail("cached@example.com")).map(UserSnapshot::getId).contains(user.getId());
+			assertThat(userIdentityCache.findById(user.getId())).isPresent();
+		}
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		assertThat(userIdentityCache.findByEmail("nobody@example.com")).isEmpty();
+		assertThat(userIdentityCache.findById(-1L)).isEmpty();
+	}
+
+	@Test
+	void updateUserEvictsStaleSnapshots() {
+		Users user = testData.user("photo");
+		assertThat(userIdentityCache.findByEmail("photo@example.com").orElseThrow().getProfilePhotoUrl()).isNull();
+
+		user.setProfilePhotoUrl("/api/images/abc");
+		user.setEmail("renamed@example.com");
+		userService.updateUser(user);
+
+		assertThat(userIdentityCache.findById(user.getId()).orElseThrow().getProfilePhotoUrl())
+				.isEqualTo("/api/images/abc");
+		assertThat(userIdentityCache.findByEmail("photo@example.com")).isEmpty();
+		assertThat(userIdentityCache.findByEmail("renamed@example.com")).isPresent();
+	}
+}
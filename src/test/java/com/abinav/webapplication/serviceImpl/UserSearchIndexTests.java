@@ -0,0 +1,113 @@
+package com.abinav.webapplication.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.abinav.webapplication.TestData;
+import com.abinav.webapplication.dto.UserDTO;
+import com.abinav.webapplication.model.Users;
+import com.abinav.webapplication.utility.UserNameIndex;
+
+@SpringBootTest
+@Import(TestData.class)
+class UserSearchIndexTests {
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private UserServiceImpl userService;
+
+	@Autowired
+	private UserSearchIndex userSearchIndex;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		userSearchIndex.rebuild();
+	}
+
+	@Test
+	void createdAndRenamedUsersAreSearchable() {
+		Users sam = createUser("sam", "sam@example.com");
+		createUser("samantha", "sjones@example.com");
+		createUser("bob", "bob.sampson@example.com");
+
+		assertThat(usernames(userService.searchUsers("sam", 10))).containsExactly("sam", "samantha", "bob");
+		assertThat(usernames(userService.searchUsers("SAM", 1))).containsExactly("sam");
+
+		sam.setUsername("samuel");
+		userService.updateUser(sam);
+		assertThat(usernames(userService.searchUsers("samu", 10))).containsExactly("samuel");
+		assertThat(userService.searchUsers("nobody", 10)).isEmpty();
+	}
+
+	@Test
+	void rebuildPicksUpUsersWrittenElsewhere() {
+		testData.user("quiet");
+		assertThat(userService.searchUsers("quiet", 10)).isEmpty();
+
+		userSearchIndex.rebuild();
+
+		assertThat(usernames(userService.searchUsers("qui", 10))).containsExactly("quiet");
+	}
+
+	@Test
+	void deletedUsersDropOutOfResults() {
+		Users gone = createUser("ghost", "ghost@example.com");
+		createUser("ghostly", "ghostly@example.com");
+		testData.deleteUser(gone);
+
+		assertThat(usernames(userService.searchUsers("ghost", 10))).containsExactly("ghostly");
+	}
+
+	@Test
+	void emailsMatchOnTheirLocalPartOrExactly() {
+		createUser("alice", "alice@gmail.com");
+		createUser("bob", "bob@gmail.com");
+
+		// Domains are not indexed
+		assertThat(userService.searchUsers("gmail", 10)).isEmpty();
+		assertThat(usernames(userService.searchUsers("bob@gmail.com", 10))).containsExactly("bob");
+		assertThat(userService.searchUsers("bob@other.org", 10)).isEmpty();
+	}
+
+	@Test
+	void rankingPutsExactThenPrefixThenSubstringMatches() {
+		UserNameIndex index = new UserNameIndex();
+		index.put(1L, "mariana", "m1@example.com");
+		index.put(2L, "xmaria", "x@example.com");
+		index.put(3L, "maria", "m3@example.com");
+		index.put(4L, "zed", "maria.z@example.com");
+		index.put(5L, "anna", "annamaria@example.com");
+
+		assertThat(index.search("maria", 10)).containsExactly(3L, 1L, 4L, 2L, 5L);
+		assertThat(index.search("maria", 2)).containsExactly(3L, 1L);
+		// Too short for trigrams: prefixes only
+		assertThat(index.search("ma", 10)).containsExactly(3L, 1L, 4L);
+		assertThat(index.search("example", 10)).isEmpty();
+
+		index.remove(3L);
+		assertThat(index.search("maria", 1)).containsExactly(1L);
+		assertThat(index.size()).isEqualTo(4);
+	}
+
+	private Users createUser(String username, String email) {
+		Users user = new Users();
+		user.setUsername(username);
+		user.setEmail(email);
+		user.setPassword("secret");
+		return userService.createUser(user);
+	}
+
+	private static List<String> usernames(List<UserDTO> users) {
+		return users.stream().map(UserDTO::getUsername).toList();
+	}
+}
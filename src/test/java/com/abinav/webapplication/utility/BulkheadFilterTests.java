@@ -0,0 +1,63 @@
+package com.abinav.webapplication.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class BulkheadFilterTests {
+
+	@Test
+	void requestBeyondCapacityIsRejectedAndPermitIsReturned() throws Exception {
+		BulkheadFilter filter = new BulkheadFilter(1, 50);
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			try {
+				filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), response,
+						new MockFilterChain(new HttpServlet() {
+							@Override
+							protected void service(HttpServletRequest req, HttpServletResponse res) {
+								entered.countDown();
+								try {
+									release.await();
+								} catch (InterruptedException e) {
+									Thread.currentThread().interrupt();
+								}
+							}
+						}));
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			return response;
+		});
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(filter.getInFlight()).isEqualTo(1);
+
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), rejected, new MockFilterChain());
+		assertThat(rejected.getStatus()).isEqualTo(503);
+		assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+		assertThat(filter.getRejected()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+		assertThat(filter.getInFlight()).isZero();
+
+		MockHttpServletResponse after = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), after, new MockFilterChain());
+		assertThat(after.getStatus()).isEqualTo(200);
+	}
+}